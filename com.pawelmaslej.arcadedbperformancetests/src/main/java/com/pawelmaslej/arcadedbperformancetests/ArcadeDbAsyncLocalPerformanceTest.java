@@ -0,0 +1,72 @@
+package com.pawelmaslej.arcadedbperformancetests;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.slf4j.bridge.SLF4JBridgeHandler;
+
+import com.pawelmaslej.arcadedbperformancetests.test.BackendConfig;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
+import com.pawelmaslej.arcadedbperformancetests.test.TestCode;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs synchronous ArcadeGraph test followed by the same test with INSERT and GENERATE_PREDICTION
+ * through embedded async executor, so both appear in one report.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+@Slf4j
+public class ArcadeDbAsyncLocalPerformanceTest {
+
+	public static final String dbAddress = Paths.get("").toAbsolutePath().toString() + "/database";
+
+	PerformanceTest test;
+	AsyncLocalBackend backend = new AsyncLocalBackend();
+
+	public static final int LIMIT_10K = 10000;
+	public static final int LIMIT_100K = 100000;
+	public static final int LIMIT_500K = 500000;
+	public static final int LIMIT_1M = 1000000;
+
+	public static void main(String [] args) throws Exception {
+		ArcadeDbAsyncLocalPerformanceTest main = new ArcadeDbAsyncLocalPerformanceTest();
+		try {
+			main.configureDB();
+			main.test();
+		}
+		catch (Exception e) {
+			log.error(e.getMessage(), e);
+		}
+		finally {
+			main.shutdown();
+		}
+	}
+
+	public void configureDB() throws Exception {
+		SLF4JBridgeHandler.removeHandlersForRootLogger();
+		SLF4JBridgeHandler.install();
+
+		backend.open(BackendConfig.defaults().withDirectory(dbAddress));
+	}
+
+	public void shutdown() throws Exception {
+		backend.close();
+	}
+
+	public void test() throws IOException {
+		test = new PerformanceTest();
+		TinkerPopTestCode tinkerCode = new TinkerPopTestCode(backend.graph, backend.gts, test, true);
+		test.runTest(getClass().getSimpleName() + " synchronous", LIMIT_10K, tinkerCode, this::createWorkerTestCode);
+
+		// parallelism comes from async executor, no worker threads
+		test.runTest(getClass().getSimpleName() + " async parallel level %s commit every %s".formatted(AsyncLocalBackend.parallelLevel, AsyncLocalBackend.commitEvery), LIMIT_10K, backend);
+	}
+
+	private TestCode createWorkerTestCode() {
+		var workerGraph = backend.openGraph();
+		return new TinkerPopTestCode(workerGraph, workerGraph.traversal(), test, true);
+	}
+}
\ No newline at end of file
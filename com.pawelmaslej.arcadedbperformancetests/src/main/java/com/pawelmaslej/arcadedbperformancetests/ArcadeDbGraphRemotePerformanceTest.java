@@ -1,13 +1,11 @@
 package com.pawelmaslej.arcadedbperformancetests;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 
-import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
-import org.apache.tinkerpop.gremlin.structure.Transaction.READ_WRITE_BEHAVIOR;
 import org.slf4j.bridge.SLF4JBridgeHandler;
 
-import com.arcadedb.gremlin.ArcadeGraph;
-import com.arcadedb.remote.RemoteDatabase;
+import com.pawelmaslej.arcadedbperformancetests.test.BackendConfig;
 import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
 
 import lombok.extern.slf4j.Slf4j;
@@ -24,11 +22,11 @@ public class ArcadeDbGraphRemotePerformanceTest {
 	public static final String dbName = "test";
 	public static final String dbUser = "root";
 	public static final String dbPass = "password";
+	public static final boolean embeddedServer = false; // true starts ArcadeDB server with Gremlin Server plugin inside this JVM
 
 	PerformanceTest test;
-	RemoteDatabase rd;
-	ArcadeGraph graph;
-	GraphTraversalSource gts;
+	GraphRemoteBackend backend = new GraphRemoteBackend();
+	EmbeddedServer server = new EmbeddedServer();
 
 	public static final int LIMIT_10K = 10000;
 	public static final int LIMIT_100K = 100000;
@@ -53,12 +51,11 @@ public class ArcadeDbGraphRemotePerformanceTest {
 		SLF4JBridgeHandler.removeHandlersForRootLogger();
 		SLF4JBridgeHandler.install();
 
-		rd = new RemoteDatabase("localhost", 2480, "test", "root", "password");
-		rd.command("sqlscript", "create vertex type endpoint if not exists; create property endpoint.name if not exists string; create index if not exists on endpoint (name) unique;");
-
-		graph = ArcadeGraph.open(rd);
-		gts = graph.traversal();
-		graph.tx().onReadWrite(READ_WRITE_BEHAVIOR.MANUAL); // disables auto-start
+		var config = new BackendConfig(dbAddress, dbPort, 8182, dbName, dbUser, dbPass, null);
+		if (embeddedServer) {
+			server.start(config, Paths.get("").toAbsolutePath().toString() + "/server");
+		}
+		backend.open(config);
 
 		// Multi-threading example
 		//TODO ArcadeGraphFactory is missing inside dependencies!
@@ -70,25 +67,12 @@ public class ArcadeDbGraphRemotePerformanceTest {
 	}
 
 	public void shutdown() throws Exception {
-		gts.close();
-		graph.close();
-		rd.close();
+		backend.close();
+		server.close();
 	}
 
 	public void test() throws IOException {
 		test = new PerformanceTest();
-		TinkerPopTestCode code = new TinkerPopTestCode(graph, gts, test, true);
-		test.runTest(
-			getClass().getSimpleName(),
-			LIMIT_10K,
-			code.deleteAllDataFunction(),
-			code.createEndpointFunction(),
-			code.insertFunction(),
-			code.predictFunction(),
-			code.queryAndIterateJsonAllInputStructuresFunction(),
-			code.queryAndIterateDataAllPredictionStructuresFunction(),
-			code.findAllEndpointsFunction(),
-			code.findAllPredictionStructuresByEndpointIdFunction(),
-			code.printStatsFunction());
+		test.runTest(getClass().getSimpleName(), LIMIT_10K, backend);
 	}
 }
\ No newline at end of file
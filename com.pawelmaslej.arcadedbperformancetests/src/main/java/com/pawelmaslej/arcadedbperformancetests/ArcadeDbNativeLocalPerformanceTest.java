@@ -0,0 +1,68 @@
+package com.pawelmaslej.arcadedbperformancetests;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.slf4j.bridge.SLF4JBridgeHandler;
+
+import com.pawelmaslej.arcadedbperformancetests.test.BackendConfig;
+import com.pawelmaslej.arcadedbperformancetests.test.MixedWorkload;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Same test as {@link ArcadeDbGraphLocalPerformanceTest} through native embedded API,
+ * shows overhead of the TinkerPop layer.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+@Slf4j
+public class ArcadeDbNativeLocalPerformanceTest {
+
+	public static final String dbAddress = Paths.get("").toAbsolutePath().toString() + "/database";
+	public static final String workloadMix = ""; // e.g. "FIND_BY_ENDPOINT=50,PREDICT=30,INSERT=15,SCAN=5" runs mixed workload after the test
+
+	PerformanceTest test;
+	NativeLocalBackend backend = new NativeLocalBackend();
+
+	public static final int LIMIT_10K = 10000;
+	public static final int LIMIT_100K = 100000;
+	public static final int LIMIT_500K = 500000;
+	public static final int LIMIT_1M = 1000000;
+
+	public static void main(String [] args) throws Exception {
+		ArcadeDbNativeLocalPerformanceTest main = new ArcadeDbNativeLocalPerformanceTest();
+		try {
+			main.configureDB();
+			main.test();
+		}
+		catch (Exception e) {
+			log.error(e.getMessage(), e);
+		}
+		finally {
+			main.shutdown();
+		}
+	}
+
+	public void configureDB() throws Exception {
+		SLF4JBridgeHandler.removeHandlersForRootLogger();
+		SLF4JBridgeHandler.install();
+
+		backend.open(BackendConfig.defaults().withDirectory(dbAddress));
+	}
+
+	public void shutdown() throws Exception {
+		backend.close();
+	}
+
+	public void test() throws IOException {
+		test = new PerformanceTest();
+		test.runTest(getClass().getSimpleName(), LIMIT_10K, backend);
+		if (!workloadMix.isEmpty()) {
+			MixedWorkload.configureMix(workloadMix);
+			new MixedWorkload(test).run(getClass().getSimpleName(), backend.createTestCode(test), () -> backend.createWorkerTestCode(test));
+		}
+	}
+}
\ No newline at end of file
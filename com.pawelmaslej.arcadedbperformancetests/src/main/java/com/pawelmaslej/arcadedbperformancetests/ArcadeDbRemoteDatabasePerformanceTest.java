@@ -1,10 +1,14 @@
 package com.pawelmaslej.arcadedbperformancetests;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 
 import org.slf4j.bridge.SLF4JBridgeHandler;
 
-import com.arcadedb.remote.RemoteDatabase;
+import com.pawelmaslej.arcadedbperformancetests.test.BackendConfig;
+import com.pawelmaslej.arcadedbperformancetests.test.MixedWorkload;
+import com.pawelmaslej.arcadedbperformancetests.test.OpenLoopTest;
+import com.pawelmaslej.arcadedbperformancetests.test.OpenLoopTest.OpenLoopOperation;
 import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
 
 import lombok.extern.slf4j.Slf4j;
@@ -21,9 +25,13 @@ public class ArcadeDbRemoteDatabasePerformanceTest {
 	public static final String dbName = "test";
 	public static final String dbUser = "root";
 	public static final String dbPass = "password";
+	public static final boolean embeddedServer = false; // true starts ArcadeDB server with Gremlin Server plugin inside this JVM
+	public static final String workloadMix = ""; // e.g. "FIND_BY_ENDPOINT=50,PREDICT=30,INSERT=15,SCAN=5" runs mixed workload after the test
+	public static final double openLoopStartRate = 0; // ops/s where open-loop sweep of FIND_BY_ENDPOINT starts after the test, 0 disables
 
 	PerformanceTest test;
-	RemoteDatabase rd;
+	RemoteDatabaseBackend backend = new RemoteDatabaseBackend();
+	EmbeddedServer server = new EmbeddedServer();
 
 	public static final int LIMIT_10K = 10000;
 	public static final int LIMIT_100K = 100000;
@@ -48,8 +56,6 @@ public class ArcadeDbRemoteDatabasePerformanceTest {
 		SLF4JBridgeHandler.removeHandlersForRootLogger();
 		SLF4JBridgeHandler.install();
 
-		rd = new RemoteDatabase("localhost", 2480, "test", "root", "password");
-
 		//TODO code no longer compiles, missing methods
 //		if (!rd.exists()) {
 //			rd.create();
@@ -58,31 +64,27 @@ public class ArcadeDbRemoteDatabasePerformanceTest {
 //			rd.create();
 //		}
 
-		rd.command("sqlscript", "create vertex type inputstructure if not exists;");
-		rd.command("sqlscript", "create vertex type endpoint if not exists; create property endpoint.name if not exists string; create index if not exists on endpoint (name) unique;");
-		rd.command("sqlscript", "create vertex type predictionstructure if not exists;");
-		rd.command("sqlscript", "create edge type e_endpoint if not exists;");
-		rd.command("sqlscript", "create edge type e_predictionstructure if not exists;");
+		var config = new BackendConfig(dbAddress, dbPort, 8182, dbName, dbUser, dbPass, null);
+		if (embeddedServer) {
+			server.start(config, Paths.get("").toAbsolutePath().toString() + "/server");
+		}
+		backend.open(config);
 	}
 
 	public void shutdown() throws Exception {
-		rd.close();
+		backend.close();
+		server.close();
 	}
 
 	public void test() throws IOException {
 		test = new PerformanceTest();
-		RemoteDatabaseTestCode code = new RemoteDatabaseTestCode(rd, test, false);
-		test.runTest(
-			getClass().getSimpleName(),
-			LIMIT_10K,
-			code.deleteAllDataFunction(),
-			code.createEndpointFunction(),
-			code.insertFunction(),
-			code.predictFunction(),
-			code.queryAndIterateJsonAllInputStructuresFunction(),
-			code.queryAndIterateDataAllPredictionStructuresFunction(),
-			code.findAllEndpointsFunction(),
-			code.findAllPredictionStructuresByEndpointIdFunction(),
-			code.printStatsFunction());
+		test.runTest(getClass().getSimpleName(), LIMIT_10K, backend);
+		if (!workloadMix.isEmpty()) {
+			MixedWorkload.configureMix(workloadMix);
+			new MixedWorkload(test).run(getClass().getSimpleName(), backend.createTestCode(test), () -> backend.createWorkerTestCode(test));
+		}
+		if (openLoopStartRate > 0) {
+			new OpenLoopTest(test).run(getClass().getSimpleName(), OpenLoopOperation.FIND_BY_ENDPOINT, openLoopStartRate, () -> backend.createWorkerTestCode(test));
+		}
 	}
 }
\ No newline at end of file
@@ -1,13 +1,13 @@
 package com.pawelmaslej.arcadedbperformancetests;
 
 import java.io.IOException;
+import java.nio.file.Paths;
 
-import org.apache.tinkerpop.gremlin.driver.Cluster;
-import org.apache.tinkerpop.gremlin.driver.remote.DriverRemoteConnection;
-import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.slf4j.bridge.SLF4JBridgeHandler;
 
-import com.arcadedb.remote.RemoteDatabase;
+import com.pawelmaslej.arcadedbperformancetests.test.BackendConfig;
+import com.pawelmaslej.arcadedbperformancetests.test.OpenLoopTest;
+import com.pawelmaslej.arcadedbperformancetests.test.OpenLoopTest.OpenLoopOperation;
 import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
 
 import lombok.extern.slf4j.Slf4j;
@@ -21,14 +21,16 @@ public class ArcadeDbTraversalRemotePerformanceTest {
 
 	public static final String dbAddress = "localhost";
 	public static final int dbPort = 2480;
-	public static final String dbName = "test1";
+	public static final int gremlinPort = 8182;
+	public static final String dbName = "graph";
 	public static final String dbUser = "root";
 	public static final String dbPass = "password";
+	public static final boolean embeddedServer = false; // true starts ArcadeDB server with Gremlin Server plugin inside this JVM
+	public static final double openLoopStartRate = 0; // ops/s where open-loop sweep of FIND_BY_ENDPOINT starts after the test, 0 disables
 
 	PerformanceTest test;
-	Cluster cluster;
-	DriverRemoteConnection drc;
-	GraphTraversalSource gts;
+	TraversalRemoteBackend backend = new TraversalRemoteBackend();
+	EmbeddedServer server = new EmbeddedServer();
 
 	public static final int LIMIT_10K = 10000;
 	public static final int LIMIT_100K = 100000;
@@ -53,40 +55,23 @@ public class ArcadeDbTraversalRemotePerformanceTest {
 		SLF4JBridgeHandler.removeHandlersForRootLogger();
 		SLF4JBridgeHandler.install();
 
-		var rd = new RemoteDatabase("localhost", 2480, "graph", "root", "password");
-		rd.command("sqlscript", "create vertex type endpoint if not exists; create property endpoint.name if not exists string; create index if not exists on endpoint (name) unique;");
-		rd.close();
-
-		cluster = Cluster.build()
-	        .port(8182)
-	        .addContactPoint("localhost")
-	        .credentials("root", "password")
-	        .create();
-
-		drc = DriverRemoteConnection.using(cluster);
-		gts = new GraphTraversalSource(drc);
+		var config = new BackendConfig(dbAddress, dbPort, gremlinPort, dbName, dbUser, dbPass, null);
+		if (embeddedServer) {
+			server.start(config, Paths.get("").toAbsolutePath().toString() + "/server");
+		}
+		backend.open(config);
 	}
 
 	public void shutdown() throws Exception {
-		gts.close();
-		drc.close();
-		cluster.close();
+		backend.close();
+		server.close();
 	}
 
 	public void test() throws IOException {
 		test = new PerformanceTest();
-		TraversalTinkerPopTestCode tinkerCode = new TraversalTinkerPopTestCode(gts, test, false);
-		test.runTest(
-			getClass().getSimpleName(),
-			LIMIT_10K,
-			tinkerCode.deleteAllDataFunction(),
-			tinkerCode.createEndpointFunction(),
-			tinkerCode.insertFunction(),
-			tinkerCode.predictFunction(),
-			tinkerCode.queryAndIterateJsonAllInputStructuresFunction(),
-			tinkerCode.queryAndIterateDataAllPredictionStructuresFunction(),
-			tinkerCode.findAllEndpointsFunction(),
-			tinkerCode.findAllPredictionStructuresByEndpointIdFunction(),
-			tinkerCode.printStatsFunction());
+		test.runTest(getClass().getSimpleName(), LIMIT_10K, backend);
+		if (openLoopStartRate > 0) {
+			new OpenLoopTest(test).run(getClass().getSimpleName(), OpenLoopOperation.FIND_BY_ENDPOINT, openLoopStartRate, () -> backend.createWorkerTestCode(test));
+		}
 	}
 }
\ No newline at end of file
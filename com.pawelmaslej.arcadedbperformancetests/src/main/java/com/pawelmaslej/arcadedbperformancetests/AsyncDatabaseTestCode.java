@@ -0,0 +1,111 @@
+package com.pawelmaslej.arcadedbperformancetests;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+
+import com.arcadedb.database.Database;
+import com.arcadedb.database.RID;
+import com.arcadedb.gremlin.ArcadeGraph;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest.Operation;
+import com.pawelmaslej.arcadedbperformancetests.test.PredictionStructureInputData;
+
+/**
+ * Inserts structures and generates predictions through embedded async executor ({@link Database#async()}),
+ * remaining stages run through ArcadeGraph like in {@link TinkerPopTestCode}.
+ * Latency of each record and transaction is measured from submission to its completion callback.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class AsyncDatabaseTestCode extends TinkerPopTestCode {
+
+	Database db;
+	int commitEvery;
+	AtomicReference<Throwable> asyncError = new AtomicReference<>();
+
+	/**
+	 * @param parallelLevel number of async executor threads
+	 * @param commitEvery inserted records per commit and predictions per async transaction
+	 */
+	public AsyncDatabaseTestCode(Database db,
+		ArcadeGraph graph,
+		GraphTraversalSource gts,
+		PerformanceTest test,
+		int parallelLevel,
+		int commitEvery) {
+		super(graph, gts, test, true);
+		this.db = db;
+		this.commitEvery = commitEvery;
+
+		var async = db.async();
+		async.setParallelLevel(parallelLevel);
+		async.setCommitEvery(commitEvery);
+		async.onError(e -> asyncError.compareAndSet(null, e));
+	}
+
+	@Override
+	public Function<List<Object>, List<String>> insertFunction() {
+		return (payloads) -> {
+			var async = db.async();
+			var ids = new AtomicReferenceArray<String>(payloads.size());
+			for (int i=0; i<payloads.size(); i++) {
+				int index = i;
+				var v = db.newVertex("inputstructure");
+				v.set("json", payloads.get(i));
+				long submitted = System.nanoTime();
+				async.createRecord(v, record -> {
+					ids.set(index, record.getIdentity().toString());
+					test.recordLatency(Operation.INSERT_RECORD, System.nanoTime() - submitted);
+				});
+			}
+			waitCompletion();
+			return IntStream.range(0, ids.length()).mapToObj(ids::get).toList();
+		};
+	}
+
+	@Override
+	public Function<List<PredictionStructureInputData>, List<String>> predictFunction() {
+		return (inputDataList) -> {
+			var async = db.async();
+			var ids = new AtomicReferenceArray<String>(inputDataList.size());
+			for (int from=0; from<inputDataList.size(); from+=commitEvery) {
+				int first = from;
+				var transactionInputs = inputDataList.subList(from, Math.min(from + commitEvery, inputDataList.size()));
+				long submitted = System.nanoTime();
+				async.transaction(() -> {
+					for (int i=0; i<transactionInputs.size(); i++) {
+						var inputData = transactionInputs.get(i);
+						var isv = db.lookupByRID(new RID(db, inputData.getInputStructureId()), true).asVertex();
+						var psv = db.newVertex("predictionstructure");
+						psv.set("json", isv.get("json"));
+						psv.set("alerts", PerformanceTest.getAlertsEncoding().encode(inputData.getAlerts()));
+						psv.save();
+						psv.newEdge("e_endpoint", new RID(db, inputData.getEndpointId()), true);
+						isv.newEdge("e_predictionstructure", psv, true);
+						ids.set(first + i, psv.getIdentity().toString());
+					}
+				},
+				PerformanceTest.getTransactionRetries(),
+				() -> test.recordLatency(Operation.PREDICTION_TRANSACTION, System.nanoTime() - submitted),
+				e -> asyncError.compareAndSet(null, e));
+			}
+			waitCompletion();
+			return IntStream.range(0, ids.length()).mapToObj(ids::get).toList();
+		};
+	}
+
+	/** Waits for all submitted tasks to be executed and committed, rethrows first failure. */
+	private void waitCompletion() {
+		db.async().waitCompletion();
+		var e = asyncError.getAndSet(null);
+		if (e != null) {
+			throw new RuntimeException("Async operation failed", e);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.pawelmaslej.arcadedbperformancetests;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
+import com.pawelmaslej.arcadedbperformancetests.test.TestCode;
+
+/**
+ * INSERT and GENERATE_PREDICTION through embedded async executor, see {@link AsyncDatabaseTestCode}.
+ * Parallelism comes from the executor, so there are no worker threads.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class AsyncLocalBackend extends EmbeddedGraphBackend {
+
+	public static final int parallelLevel = Runtime.getRuntime().availableProcessors();
+	public static final int commitEvery = 1000;
+
+	@Override
+	public String name() {
+		return "async-local";
+	}
+
+	@Override
+	public Set<Capability> capabilities() {
+		return EnumSet.of(Capability.EMBEDDED, Capability.TRANSACTIONS, Capability.STORAGE_SIZE);
+	}
+
+	@Override
+	public TestCode createTestCode(PerformanceTest test) {
+		return new AsyncDatabaseTestCode(db, graph, gts, test, parallelLevel, commitEvery);
+	}
+}
\ No newline at end of file
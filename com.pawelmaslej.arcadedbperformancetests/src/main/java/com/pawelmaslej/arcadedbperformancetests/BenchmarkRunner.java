@@ -0,0 +1,209 @@
+package com.pawelmaslej.arcadedbperformancetests;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.bridge.SLF4JBridgeHandler;
+
+import com.pawelmaslej.arcadedbperformancetests.test.Backend;
+import com.pawelmaslej.arcadedbperformancetests.test.BackendConfig;
+import com.pawelmaslej.arcadedbperformancetests.test.Backends;
+import com.pawelmaslej.arcadedbperformancetests.test.BenchmarkResults;
+import com.pawelmaslej.arcadedbperformancetests.test.ParameterSweep;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest.Stage;
+import com.pawelmaslej.arcadedbperformancetests.test.ProtocolOverhead;
+import com.pawelmaslej.arcadedbperformancetests.test.SizeDistribution;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs performance test against backends selected by name, one after another. Arguments are optional key=value pairs:
+ * <pre>
+ * backends=native-local,graph-local|list stages=ALL limit=10000 batchSize=10000 threads=1 iterations=0:1 testData=/data_10000
+ * testData=synthetic|generated records=&lt;largest limit&gt; sizes=PARETO:200:4000000 seed=1
+ * host=localhost port=2480 gremlinPort=8182 database=test user=root password=password directory=./database
+ * </pre>
+ * testData=synthetic generates records lazily while inserting, testData=generated writes them into testdata/ first,
+ * see {@link RecordsGenerator} for sizes. Comma separated limit, batchSize, transactionSize and threads values
+ * run {@link ParameterSweep}, sweep=ONE_AT_A_TIME varies one parameter at a time instead of all combinations (PRODUCT).
+ * server=embedded starts {@link EmbeddedServer} for remote backends, files are kept next to directory in "directory-server".
+ * Remote backends run together with their embedded counterpart get {@link ProtocolOverhead} printed.
+ * Failure of one backend is logged and the next one runs, exit status is 1 when any failed.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+@Slf4j
+public class BenchmarkRunner {
+
+	static List<String> backendNames = List.of("native-local");
+	static List<Integer> limits = List.of(10000);
+	static List<Integer> batchSizes = List.of(PerformanceTest.getBatchSize());
+	static List<Integer> transactionSizes = List.of(PerformanceTest.getPredictionsPerTransaction());
+	static List<Integer> threads = List.of(PerformanceTest.getThreads());
+	static ParameterSweep.Mode sweepMode = null;
+	static boolean embeddedServer = false;
+	static String testData = null;
+	static Integer records = null;
+	static SizeDistribution sizes = new SizeDistribution(SizeDistribution.Shape.PARETO, 200, 4000000);
+	static long seed = 1;
+
+	public static void main(String [] args) throws Exception {
+		var config = BackendConfig.defaults();
+		for (var arg : args) {
+			var keyValue = arg.split("=", 2);
+			if (keyValue.length != 2) {
+				throw new IllegalArgumentException("Expected key=value argument, got " + arg);
+			}
+			var value = keyValue[1];
+			switch (keyValue[0]) {
+				case "backends" -> backendNames = Arrays.asList(value.split(","));
+				case "stages" -> PerformanceTest.configureStages(Arrays.stream(value.split(",")).map(Stage::valueOf).toArray(Stage[]::new));
+				case "limit" -> limits = parseIntegers(value);
+				case "batchSize" -> batchSizes = parseIntegers(value);
+				case "transactionSize" -> transactionSizes = parseIntegers(value);
+				case "threads" -> threads = parseIntegers(value);
+				case "sweep" -> sweepMode = ParameterSweep.Mode.valueOf(value);
+				case "server" -> embeddedServer = switch (value) {
+					case "embedded" -> true;
+					case "external" -> false;
+					default -> throw new IllegalArgumentException("Expected server=embedded or server=external, got " + value);
+				};
+				case "iterations" -> {
+					var iterations = value.split(":");
+					if (iterations.length != 2) {
+						throw new IllegalArgumentException("Expected iterations=warmup:measurement, got " + value);
+					}
+					PerformanceTest.configureIterations(Integer.parseInt(iterations[0]), Integer.parseInt(iterations[1]));
+				}
+				case "testData" -> testData = value;
+				case "records" -> records = Integer.parseInt(value);
+				case "sizes" -> sizes = SizeDistribution.parse(value);
+				case "seed" -> seed = Long.parseLong(value);
+				case "host" -> config = config.withHost(value);
+				case "port" -> config = config.withPort(Integer.parseInt(value));
+				case "gremlinPort" -> config = config.withGremlinPort(Integer.parseInt(value));
+				case "database" -> config = config.withDatabase(value);
+				case "user" -> config = config.withUser(value);
+				case "password" -> config = config.withPassword(value);
+				case "directory" -> config = config.withDirectory(value);
+				default -> throw new IllegalArgumentException("Unknown argument " + keyValue[0]);
+			}
+		}
+
+		if (backendNames.equals(List.of("list"))) {
+			Backends.available().forEach(b -> System.out.println("%s %s".formatted(b.name(), b.capabilities())));
+			return;
+		}
+
+		SLF4JBridgeHandler.removeHandlersForRootLogger();
+		SLF4JBridgeHandler.install();
+
+		configureTestData();
+		boolean sweep = sweepMode != null || limits.size() > 1 || batchSizes.size() > 1 || transactionSizes.size() > 1 || threads.size() > 1;
+		List<String> failed;
+		try (var server = embeddedServer ? new EmbeddedServer() : null) {
+			if (server != null) {
+				server.start(config, config.directory() + "-server");
+			}
+			failed = sweep ? sweep(config) : run(config);
+		}
+		if (!failed.isEmpty()) {
+			System.out.println("Failed: " + failed);
+			System.exit(1);
+		}
+	}
+
+	/** Generated records cover the largest limit unless records is set. */
+	private static void configureTestData() throws IOException {
+		int count = records != null ? records : limits.stream().mapToInt(Integer::intValue).max().getAsInt();
+		if (testData == null) {
+			return;
+		}
+		switch (testData) {
+			case "synthetic" -> PerformanceTest.configureSyntheticTestData(count, sizes, seed);
+			case "generated" -> PerformanceTest.configureGeneratedTestData(count, sizes, seed);
+			default -> PerformanceTest.configureTestDataFile(testData);
+		}
+	}
+
+	private static List<String> run(BackendConfig config) {
+		PerformanceTest.configureBatchSize(batchSizes.get(0));
+		PerformanceTest.configurePredictionsPerTransaction(transactionSizes.get(0), PerformanceTest.getTransactionRetries());
+		PerformanceTest.configureThreads(threads.get(0));
+
+		List<String> failed = new ArrayList<>();
+		Map<String, BenchmarkResults> results = new LinkedHashMap<>();
+		for (var name : backendNames) {
+			var backend = Backends.find(name);
+			if (PerformanceTest.getThreads() > 1 && !backend.supports(Backend.Capability.CONCURRENT_WORKERS)) {
+				System.out.println("Skipping %s, no concurrent workers for %s threads".formatted(name, PerformanceTest.getThreads()));
+				continue;
+			}
+			try (backend) {
+				backend.open(config);
+				var test = new PerformanceTest();
+				test.runTest(name, limits.get(0), backend);
+				results.put(name, test.getResults());
+			}
+			catch (Exception e) {
+				log.error("Backend %s failed: %s".formatted(name, e.getMessage()), e);
+				failed.add(name);
+			}
+		}
+		compareWithEmbedded(results);
+		return failed;
+	}
+
+	/** Remote backends run together with their embedded counterpart get protocol overhead reported. */
+	private static void compareWithEmbedded(Map<String, BenchmarkResults> results) {
+		results.forEach((name, remoteResults) -> {
+			var embeddedName = Backends.find(name).embeddedCounterpart();
+			if (embeddedName == null || !results.containsKey(embeddedName)) {
+				return;
+			}
+			var overhead = new ProtocolOverhead(embeddedName, results.get(embeddedName), name, remoteResults);
+			overhead.print();
+			if (PerformanceTest.getResultsDirectory() != null) {
+				try {
+					overhead.write(PerformanceTest.getResultsDirectory());
+				}
+				catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+		});
+	}
+
+	private static List<String> sweep(BackendConfig config) throws IOException {
+		var sweep = new ParameterSweep(sweepMode != null ? sweepMode : ParameterSweep.Mode.PRODUCT, limits, batchSizes, transactionSizes, threads);
+		System.out.println("Sweeping %s points over %s".formatted(sweep.points().size(), backendNames));
+		List<String> failed = new ArrayList<>();
+		for (var name : backendNames) {
+			try (var backend = Backends.find(name)) {
+				backend.open(config);
+				sweep.run(backend);
+			}
+			catch (Exception e) {
+				log.error("Backend %s failed: %s".formatted(name, e.getMessage()), e);
+				failed.add(name);
+			}
+		}
+		sweep.print();
+		if (PerformanceTest.getResultsDirectory() != null) {
+			sweep.write(PerformanceTest.getResultsDirectory());
+		}
+		failed.addAll(sweep.getFailedPoints());
+		return failed;
+	}
+
+	private static List<Integer> parseIntegers(String value) {
+		return Arrays.stream(value.split(",")).map(Integer::parseInt).toList();
+	}
+}
\ No newline at end of file
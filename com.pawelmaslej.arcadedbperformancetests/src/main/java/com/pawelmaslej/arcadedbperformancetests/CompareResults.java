@@ -0,0 +1,34 @@
+package com.pawelmaslej.arcadedbperformancetests;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import com.pawelmaslej.arcadedbperformancetests.test.BenchmarkResults;
+
+/**
+ * Compares two CSV results files written by performance tests:
+ * <pre>
+ * CompareResults baseline.csv candidate.csv [thresholdPercent=5]
+ * </pre>
+ * Exits with status 1 when any operation regressed beyond threshold.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class CompareResults {
+
+	static double thresholdPercent = 5;
+
+	public static void main(String [] args) throws IOException {
+		if (args.length < 2 || args.length > 3) {
+			throw new IllegalArgumentException("Usage: CompareResults baseline.csv candidate.csv [thresholdPercent]");
+		}
+		if (args.length == 3) {
+			thresholdPercent = Double.parseDouble(args[2]);
+		}
+		int regressions = BenchmarkResults.compare(Paths.get(args[0]), Paths.get(args[1]), thresholdPercent);
+		if (regressions > 0) {
+			System.exit(1);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.pawelmaslej.arcadedbperformancetests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.arcadedb.database.BasicDatabase;
+import com.arcadedb.database.Database;
+import com.arcadedb.database.RID;
+import com.arcadedb.database.Record;
+import com.google.common.collect.Lists;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest.Operation;
+
+/**
+ * Delete strategies of backends with access to {@link Database} API.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+class DatabaseDeletes {
+
+	/** Deletion order, prediction structures hold most edges. */
+	static final List<String> VERTEX_TYPES = List.of("predictionstructure", "inputstructure", "endpoint");
+
+	/** Edge types go first, UNSAFE allows truncating types with edges as all connected types are truncated together. */
+	static final String TRUNCATE_SCRIPT = "truncate type e_endpoint unsafe; truncate type e_predictionstructure unsafe; "
+		+ "truncate type predictionstructure unsafe; truncate type inputstructure unsafe; truncate type endpoint unsafe;";
+
+	static long countVertices(BasicDatabase db) {
+		long count = 0;
+		for (var type : VERTEX_TYPES) {
+			count += db.countType(type, false);
+		}
+		return count;
+	}
+
+	static long truncateTypes(BasicDatabase db, PerformanceTest test) {
+		long deleted = countVertices(db);
+		long start = System.nanoTime();
+		db.command("sqlscript", TRUNCATE_SCRIPT);
+		test.recordLatency(Operation.DELETE_BATCH, System.nanoTime() - start);
+		return deleted;
+	}
+
+	/** Scans each type once for record ids, then deletes them in transactions of batchSize records. */
+	static long deleteInBatches(Database db, PerformanceTest test, int batchSize) {
+		long deleted = 0;
+		for (var type : VERTEX_TYPES) {
+			var rids = new ArrayList<RID>();
+			db.iterateType(type, false).forEachRemaining(r -> rids.add(r.getIdentity()));
+			deleted += deleteInBatches(db, test, rids, batchSize);
+		}
+		return deleted;
+	}
+
+	/**
+	 * Empties buckets of each type in parallel, type after type. Vertices of different buckets share edge lists
+	 * of connected vertices, conflicting transactions are retried.
+	 */
+	static long deleteBucketsInParallel(Database db, PerformanceTest test, int batchSize) {
+		long deleted = 0;
+		for (var type : VERTEX_TYPES) {
+			var buckets = db.getSchema().getType(type).getBuckets(false);
+			var executor = Executors.newFixedThreadPool(buckets.size());
+			try {
+				List<Future<Long>> futures = new ArrayList<>(buckets.size());
+				for (var bucket : buckets) {
+					futures.add(executor.submit(() -> {
+						var rids = new ArrayList<RID>();
+						db.iterateBucket(bucket.getName()).forEachRemaining(r -> rids.add(r.getIdentity()));
+						return deleteInBatches(db, test, rids, batchSize);
+					}));
+				}
+				for (var future : futures) {
+					deleted += future.get();
+				}
+			}
+			catch (ExecutionException e) {
+				throw e.getCause() instanceof RuntimeException re ? re : new RuntimeException(e.getCause());
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new RuntimeException(e);
+			}
+			finally {
+				executor.shutdownNow();
+			}
+		}
+		return deleted;
+	}
+
+	private static long deleteInBatches(Database db, PerformanceTest test, List<RID> rids, int batchSize) {
+		for (var batch : Lists.partition(rids, batchSize)) {
+			long start = System.nanoTime();
+			db.transaction(() -> {
+				for (var rid : batch) {
+					Record record = db.lookupByRID(rid, false);
+					db.deleteRecord(record);
+				}
+			}, false, PerformanceTest.getTransactionRetries());
+			test.recordLatency(Operation.DELETE_BATCH, System.nanoTime() - start);
+		}
+		return rids.size();
+	}
+}
\ No newline at end of file
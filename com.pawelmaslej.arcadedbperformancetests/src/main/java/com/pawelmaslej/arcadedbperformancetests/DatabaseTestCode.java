@@ -0,0 +1,281 @@
+package com.pawelmaslej.arcadedbperformancetests;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.arcadedb.database.Database;
+import com.arcadedb.database.RID;
+import com.arcadedb.graph.MutableVertex;
+import com.arcadedb.graph.Vertex.DIRECTION;
+import com.pawelmaslej.arcadedbperformancetests.test.EndpointData;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest.DeleteStrategy;
+import com.pawelmaslej.arcadedbperformancetests.test.PredictionStructureInputData;
+import com.pawelmaslej.arcadedbperformancetests.test.StructureData;
+import com.pawelmaslej.arcadedbperformancetests.test.TestCode;
+
+/**
+ * Native embedded {@link Database} API without TinkerPop adapter.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class DatabaseTestCode implements TestCode {
+
+	Database db;
+	PerformanceTest test;
+	boolean tx;
+
+	public DatabaseTestCode(Database db,
+		PerformanceTest test,
+		boolean tx) {
+		this.db = db;
+		this.test = test;
+		this.tx = tx;
+	}
+
+	@Override
+	public Function<List<Object>, List<String>> insertFunction() {
+		return (payloads) -> {
+			List<MutableVertex> vertices = new ArrayList<>(payloads.size());
+			txOpen();
+			try {
+				for (var payload : payloads) {
+					var v = db.newVertex("inputstructure");
+					v.set("json", payload);
+					v.save();
+					vertices.add(v);
+				}
+			}
+			finally {
+				txCommit();
+			}
+			return vertices.stream().map(v -> v.getIdentity().toString()).toList();
+		};
+	}
+
+	@Override
+	public Function<List<PredictionStructureInputData>, List<String>> predictFunction() {
+		return (inputDataList) -> {
+			List<MutableVertex> vertices = test.generatePredictionsInTransactions(this, tx, inputDataList, inputData -> {
+				var isv = db.lookupByRID(asRID(inputData.getInputStructureId()), true).asVertex();
+				var psv = db.newVertex("predictionstructure");
+				psv.set("json", isv.get("json"));
+				psv.set("alerts", PerformanceTest.getAlertsEncoding().encode(inputData.getAlerts()));
+				psv.save();
+				psv.newEdge("e_endpoint", asRID(inputData.getEndpointId()), true);
+				isv.newEdge("e_predictionstructure", psv, true);
+				return psv;
+			});
+			return vertices.stream().map(v -> v.getIdentity().toString()).toList();
+		};
+	}
+
+	@Override
+	public Function<String, String> createEndpointFunction() {
+		return (String endpointName) -> {
+			txOpen();
+			var v = db.newVertex("endpoint");
+			v.set("name", endpointName);
+			v.save();
+			txCommit();
+			return v.getIdentity().toString();
+		};
+	}
+
+	@Override
+	public Supplier<List<StructureData>> queryAndIterateJsonAllInputStructuresFunction() {
+		return () -> {
+			txOpen();
+			try {
+				List<StructureData> structures = new ArrayList<>();
+				var iter = db.iterateType("inputstructure", false);
+				while (iter.hasNext()) {
+					var v = iter.next().asVertex();
+					String json = PerformanceTest.getPayloadEncoding().decode(v.get("json"));
+					if (json == null || json.isBlank()) {
+						throw new RuntimeException("Json not available");
+					}
+					structures.add(new StructureData(v.getIdentity().toString(), json));
+				}
+				return structures;
+			}
+			finally {
+				txRollback();
+			}
+		};
+	}
+
+	@Override
+	public Supplier<Integer> streamAllInputStructuresFunction() {
+		return () -> {
+			txOpen();
+			try {
+				int count = 0;
+				var iter = db.iterateType("inputstructure", false);
+				while (iter.hasNext()) {
+					String json = PerformanceTest.getPayloadEncoding().decode(iter.next().asVertex().get("json"));
+					if (json == null || json.isBlank()) {
+						throw new RuntimeException("Json not available");
+					}
+					count++;
+				}
+				return count;
+			}
+			finally {
+				txRollback();
+			}
+		};
+	}
+
+	@Override
+	public Supplier<Integer> queryAndIterateDataAllPredictionStructuresFunction() {
+		return () -> {
+			txOpen();
+			try {
+				int predictionStructuresCount = 0;
+				int edgesCount = 0;
+				int alertsCount = 0;
+				var iter = db.iterateType("predictionstructure", false);
+				while (iter.hasNext()) {
+					var v = iter.next().asVertex();
+					predictionStructuresCount++;
+					String json = PerformanceTest.getPayloadEncoding().decode(v.get("json"));
+					if (json == null || json.isBlank()) {
+						throw new RuntimeException("Json not available");
+					}
+					for (var ev : v.getVertices(DIRECTION.OUT, "e_endpoint")) {
+						edgesCount++;
+						String name = ev.getString("name");
+						if (name == null || name.isBlank()) {
+							throw new RuntimeException("Name not available");
+						}
+					}
+					alertsCount += test.countAlerts(v.get("alerts"));
+				}
+				return predictionStructuresCount + edgesCount + alertsCount;
+			}
+			finally {
+				txRollback();
+			}
+		};
+	}
+
+	@Override
+	public Runnable printStatsFunction() {
+		return () -> {
+			txOpen();
+			try {
+				var inputStructuresCount = db.countType("inputstructure", false);
+				var predictionStructuresCount = db.countType("predictionstructure", false);
+				var endpointCount = db.countType("endpoint", false);
+				test.printStats((int) inputStructuresCount, (int) predictionStructuresCount, (int) endpointCount);
+			}
+			finally {
+				txRollback();
+			}
+		};
+	}
+
+	@Override
+	public Supplier<List<EndpointData>> findAllEndpointsFunction() {
+		return () -> {
+			txOpen();
+			try {
+				List<EndpointData> endpoints = new ArrayList<>();
+				var iter = db.iterateType("endpoint", false);
+				while (iter.hasNext()) {
+					var v = iter.next().asVertex();
+					endpoints.add(new EndpointData(v.getIdentity().toString(), v.getString("name")));
+				}
+				return endpoints;
+			}
+			finally {
+				txRollback();
+			}
+		};
+	}
+
+	@Override
+	public Function<String, List<String>> findAllPredictionStructuresByEndpointIdFunction() {
+		return id -> {
+			txOpen();
+			try {
+				var ev = db.lookupByRID(asRID(id), true).asVertex();
+				List<String> ids = new LinkedList<String>();
+				for (var psv : ev.getVertices(DIRECTION.IN, "e_endpoint")) {
+					if (psv.getIdentity().equals(ev.getIdentity())) {
+						throw new RuntimeException("Wrong vertex");
+					}
+					ids.add(psv.getIdentity().toString());
+				}
+				return ids;
+			}
+			finally {
+				txRollback();
+			}
+		};
+	}
+
+	@Override
+	public void txOpen() {
+		if (tx) {
+			if (db.isTransactionActive()) {
+				throw new RuntimeException("Transaction open");
+			}
+			db.begin();
+		}
+	}
+
+	@Override
+	public void txCommit() {
+		if (tx) {
+			db.commit();
+		}
+	}
+
+	@Override
+	public void txRollback() {
+		if (tx) {
+			db.rollback();
+		}
+	}
+
+	private RID asRID(String id) {
+		return new RID(db, id);
+	}
+
+	@Override
+	public Supplier<Long> storageSizeFunction() {
+		return () -> storageSize(db);
+	}
+
+	/** Counts allocated pages of all buckets, pages not yet flushed to files included. */
+	static long storageSize(Database db) {
+		long size = 0;
+		for (var bucket : db.getSchema().getBuckets()) {
+			size += (long) bucket.getTotalPages() * bucket.getPageSize();
+		}
+		return size;
+	}
+
+	@Override
+	public Function<DeleteStrategy, Long> deleteAllDataFunction() {
+		return strategy -> switch (strategy) {
+			case TRUNCATE_TYPE -> DatabaseDeletes.truncateTypes(db, test);
+			case BUCKET_PARALLEL -> DatabaseDeletes.deleteBucketsInParallel(db, test, PerformanceTest.getDeleteBatchSize());
+			case BATCHED_COMMIT -> DatabaseDeletes.deleteInBatches(db, test, PerformanceTest.getDeleteBatchSize());
+			case UNBATCHED -> DatabaseDeletes.deleteInBatches(db, test, 1);
+		};
+	}
+
+	@Override
+	public Set<DeleteStrategy> supportedDeleteStrategies() {
+		return EnumSet.allOf(DeleteStrategy.class);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,48 @@
+package com.pawelmaslej.arcadedbperformancetests;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.arcadedb.database.Database;
+import com.arcadedb.database.DatabaseFactory;
+import com.pawelmaslej.arcadedbperformancetests.test.Backend;
+import com.pawelmaslej.arcadedbperformancetests.test.BackendConfig;
+
+/**
+ * Embedded database in {@link BackendConfig#directory()}, created with full schema when missing.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public abstract class EmbeddedBackend implements Backend {
+
+	DatabaseFactory factory;
+	Database db;
+
+	@Override
+	public Set<Capability> capabilities() {
+		return EnumSet.of(Capability.EMBEDDED, Capability.CONCURRENT_WORKERS, Capability.TRANSACTIONS, Capability.STORAGE_SIZE);
+	}
+
+	@Override
+	public void open(BackendConfig config) throws Exception {
+		factory = new DatabaseFactory(config.directory());
+		factory.setAutoTransaction(false);
+		db = factory.exists() ? factory.open() : factory.create();
+		db.setAutoTransaction(false);
+		db.command("sqlscript", "create vertex type endpoint if not exists; create property endpoint.name if not exists string; create index if not exists on endpoint (name) unique;");
+		// async executor threads cannot create types on the fly
+		db.command("sqlscript", "create vertex type inputstructure if not exists; create vertex type predictionstructure if not exists; create edge type e_endpoint if not exists; create edge type e_predictionstructure if not exists;");
+	}
+
+	public Database getDatabase() {
+		return db;
+	}
+
+	@Override
+	public void close() throws Exception {
+		if (factory != null) {
+			factory.close();
+		}
+	}
+}
\ No newline at end of file
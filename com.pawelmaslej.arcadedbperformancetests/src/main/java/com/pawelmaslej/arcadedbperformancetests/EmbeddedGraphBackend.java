@@ -0,0 +1,41 @@
+package com.pawelmaslej.arcadedbperformancetests;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Transaction.READ_WRITE_BEHAVIOR;
+
+import com.arcadedb.gremlin.ArcadeGraph;
+import com.pawelmaslej.arcadedbperformancetests.test.BackendConfig;
+
+/**
+ * Embedded database accessed through {@link ArcadeGraph}, every worker gets own graph over the shared database.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public abstract class EmbeddedGraphBackend extends EmbeddedBackend {
+
+	ArcadeGraph graph;
+	GraphTraversalSource gts;
+
+	@Override
+	public void open(BackendConfig config) throws Exception {
+		super.open(config);
+		graph = openGraph();
+		gts = graph.traversal();
+	}
+
+	ArcadeGraph openGraph() {
+		var graph = ArcadeGraph.open(db);
+		graph.tx().onReadWrite(READ_WRITE_BEHAVIOR.MANUAL); // disables auto-start
+		return graph;
+	}
+
+	@Override
+	public void close() throws Exception {
+		if (gts != null) {
+			gts.close();
+			graph.close();
+		}
+		super.close();
+	}
+}
\ No newline at end of file
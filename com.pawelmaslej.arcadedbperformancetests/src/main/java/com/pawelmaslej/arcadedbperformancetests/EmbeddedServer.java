@@ -0,0 +1,59 @@
+package com.pawelmaslej.arcadedbperformancetests;
+
+import com.arcadedb.ContextConfiguration;
+import com.arcadedb.GlobalConfiguration;
+import com.arcadedb.server.ArcadeDBServer;
+import com.pawelmaslej.arcadedbperformancetests.test.BackendConfig;
+
+/**
+ * ArcadeDB server with Gremlin Server plugin started inside the test JVM, stands in for a manually installed server.
+ * Remote backends reach it over local ports, so they run on the same machine and engine version as embedded backends.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class EmbeddedServer implements AutoCloseable {
+
+	public static final String gremlinPlugin = "GremlinServer:com.arcadedb.server.gremlin.GremlinServerPlugin";
+	public static final String gremlinDatabase = "graph"; // traversal source of Gremlin Server plugin
+	public static final int gremlinPort = 8182; // plugin default, used without config/gremlin-server.yaml
+
+	ArcadeDBServer server;
+
+	/**
+	 * Starts server on host and port of config with root password of config, server files are kept in rootPath.
+	 * Database of config and {@link #gremlinDatabase} are created with schema of the test when missing.
+	 */
+	public void start(BackendConfig config, String rootPath) {
+		if (!"root".equals(config.user())) {
+			throw new IllegalArgumentException("Embedded server has root user only, got " + config.user());
+		}
+		if (config.gremlinPort() != gremlinPort) {
+			throw new IllegalArgumentException("Embedded Gremlin Server listens on %s, got %s".formatted(gremlinPort, config.gremlinPort()));
+		}
+		var configuration = new ContextConfiguration();
+		configuration.setValue(GlobalConfiguration.SERVER_ROOT_PATH, rootPath);
+		configuration.setValue(GlobalConfiguration.SERVER_DATABASE_DIRECTORY, rootPath + "/databases");
+		configuration.setValue(GlobalConfiguration.SERVER_ROOT_PASSWORD, config.password());
+		configuration.setValue(GlobalConfiguration.SERVER_HTTP_INCOMING_HOST, config.host());
+		configuration.setValue(GlobalConfiguration.SERVER_HTTP_INCOMING_PORT, String.valueOf(config.port()));
+		configuration.setValue(GlobalConfiguration.SERVER_PLUGINS, gremlinPlugin);
+		server = new ArcadeDBServer(configuration);
+		server.start();
+		System.out.println("Embedded server started on %s:%s, Gremlin Server on %s, files in %s".formatted(config.host(), config.port(), gremlinPort, rootPath));
+
+		for (var name : new String[] {config.database(), gremlinDatabase}) {
+			var db = server.getOrCreateDatabase(name);
+			db.command("sqlscript", "create vertex type endpoint if not exists; create property endpoint.name if not exists string; create index if not exists on endpoint (name) unique;");
+			db.command("sqlscript", "create vertex type inputstructure if not exists; create vertex type predictionstructure if not exists; create edge type e_endpoint if not exists; create edge type e_predictionstructure if not exists;");
+		}
+	}
+
+	@Override
+	public void close() {
+		if (server != null) {
+			server.stop();
+			server = null;
+		}
+	}
+}
\ No newline at end of file
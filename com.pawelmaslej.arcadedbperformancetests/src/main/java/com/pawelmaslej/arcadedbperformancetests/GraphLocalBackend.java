@@ -0,0 +1,29 @@
+package com.pawelmaslej.arcadedbperformancetests;
+
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
+import com.pawelmaslej.arcadedbperformancetests.test.TestCode;
+
+/**
+ * Embedded {@link com.arcadedb.gremlin.ArcadeGraph} through TinkerPop structure API, see {@link TinkerPopTestCode}.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class GraphLocalBackend extends EmbeddedGraphBackend {
+
+	@Override
+	public String name() {
+		return "graph-local";
+	}
+
+	@Override
+	public TestCode createTestCode(PerformanceTest test) {
+		return new TinkerPopTestCode(graph, gts, test, true);
+	}
+
+	@Override
+	public TestCode createWorkerTestCode(PerformanceTest test) {
+		var workerGraph = openGraph();
+		return new TinkerPopTestCode(workerGraph, workerGraph.traversal(), test, true);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,91 @@
+package com.pawelmaslej.arcadedbperformancetests;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Transaction.READ_WRITE_BEHAVIOR;
+
+import com.arcadedb.gremlin.ArcadeGraph;
+import com.arcadedb.remote.RemoteDatabase;
+import com.pawelmaslej.arcadedbperformancetests.test.Backend;
+import com.pawelmaslej.arcadedbperformancetests.test.BackendConfig;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
+import com.pawelmaslej.arcadedbperformancetests.test.TestCode;
+
+/**
+ * {@link ArcadeGraph} over {@link RemoteDatabase}, see {@link TinkerPopTestCode}. Each worker opens own connection.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class GraphRemoteBackend implements Backend {
+
+	BackendConfig config;
+	RemoteDatabase rd;
+	ArcadeGraph graph;
+	GraphTraversalSource gts;
+	List<RemoteDatabase> workerDatabases = new ArrayList<>();
+
+	@Override
+	public String name() {
+		return "graph-remote";
+	}
+
+	@Override
+	public Set<Capability> capabilities() {
+		return EnumSet.of(Capability.REMOTE, Capability.CONCURRENT_WORKERS, Capability.TRANSACTIONS);
+	}
+
+	@Override
+	public String embeddedCounterpart() {
+		return "graph-local";
+	}
+
+	@Override
+	public void open(BackendConfig config) throws Exception {
+		this.config = config;
+		rd = connect();
+		rd.command("sqlscript", "create vertex type endpoint if not exists; create property endpoint.name if not exists string; create index if not exists on endpoint (name) unique;");
+		graph = openGraph(rd);
+		gts = graph.traversal();
+	}
+
+	private RemoteDatabase connect() {
+		return new RemoteDatabase(config.host(), config.port(), config.database(), config.user(), config.password());
+	}
+
+	private static ArcadeGraph openGraph(RemoteDatabase rd) {
+		var graph = ArcadeGraph.open(rd);
+		graph.tx().onReadWrite(READ_WRITE_BEHAVIOR.MANUAL); // disables auto-start
+		return graph;
+	}
+
+	@Override
+	public TestCode createTestCode(PerformanceTest test) {
+		return new TinkerPopTestCode(graph, gts, test, true);
+	}
+
+	@Override
+	public synchronized TestCode createWorkerTestCode(PerformanceTest test) {
+		var workerRd = connect();
+		workerDatabases.add(workerRd);
+		var workerGraph = openGraph(workerRd);
+		return new TinkerPopTestCode(workerGraph, workerGraph.traversal(), test, true);
+	}
+
+	@Override
+	public void close() throws Exception {
+		if (gts != null) {
+			gts.close();
+			graph.close();
+		}
+		if (rd != null) {
+			rd.close();
+		}
+		workerDatabases.forEach(RemoteDatabase::close);
+		workerDatabases.clear();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.pawelmaslej.arcadedbperformancetests;
+
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
+import com.pawelmaslej.arcadedbperformancetests.test.TestCode;
+
+/**
+ * Native embedded API, see {@link DatabaseTestCode}.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class NativeLocalBackend extends EmbeddedBackend {
+
+	@Override
+	public String name() {
+		return "native-local";
+	}
+
+	@Override
+	public TestCode createTestCode(PerformanceTest test) {
+		return new DatabaseTestCode(db, test, true);
+	}
+
+	@Override
+	public TestCode createWorkerTestCode(PerformanceTest test) {
+		// transactions of embedded database are bound to the calling thread
+		return new DatabaseTestCode(db, test, true);
+	}
+}
\ No newline at end of file
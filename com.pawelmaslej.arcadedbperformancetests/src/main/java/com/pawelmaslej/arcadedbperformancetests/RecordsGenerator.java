@@ -1,60 +1,49 @@
 package com.pawelmaslej.arcadedbperformancetests;
 
-import java.io.BufferedOutputStream;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
+import com.pawelmaslej.arcadedbperformancetests.test.SizeDistribution;
+import com.pawelmaslej.arcadedbperformancetests.test.SyntheticRecords;
+
 /**
+ * Generates test data file into "testdata" directory. Arguments are optional key=value pairs:
+ * <pre>
+ * records=10000 sizes=PARETO:200:4000000 seed=1 output=plain|gzip threads=&lt;processors&gt;
+ * </pre>
+ * Generated file can be used with {@link PerformanceTest#configureTestDataFile(String)},
+ * or generated by the runner itself with {@link PerformanceTest#configureGeneratedTestData(long, SizeDistribution, long)}.
+ *
  * @author Pawel Maslej
  * @since 3 Jan 2024
  */
 public class RecordsGenerator {
 
-	static int recordsNo = 10000;
-
-	public static void main(String [] args) throws FileNotFoundException, IOException {
-		var installDir = Paths.get("").toAbsolutePath().toFile();
-		var testDataDir = new File(installDir, "testdata");
-		testDataDir.mkdir();
-		var file = new File(testDataDir, "newdata_" + recordsNo);
+	static long recordsNo = 10000;
+	static SizeDistribution sizes = new SizeDistribution(SizeDistribution.Shape.PARETO, 200, 4000000);
+	static long seed = 1;
+	static boolean gzip = false;
+	static int threads = Runtime.getRuntime().availableProcessors();
 
-		try (var os = new BufferedOutputStream(new FileOutputStream(file))) {
-			for (int i=0; i<recordsNo; i++) {
-				var json =
-					"""
-					{
-					    "glossary": {
-					        "title": "example record",
-							"RecordDiv": {
-					            "title": "R",
-								"RecordList": {
-					                "RecordEntry": {
-					                    "ID": "Record",
-										"SortAs": "Name",
-										"RecordTerm": "Standard Generalized Markup Language",
-										"Acronym": "SGML",
-										"Abbrev": "ISO 8879:1986",
-										"RecordDef": {
-					                        "para": "A meta-markup language, used to create markup languages such as DocBook.",
-											"RecordSeeAlso": ["GML", "XML"]
-					                    },
-										"RecordSee": "markup"
-					                }
-					            }
-					        }
-					    }
-					}""";
-				json = json.replaceAll("\n", "").replaceAll("\r", "");
-				var text = json + ((i+1) < recordsNo ? "\n" : "");
-				os.write(text.getBytes(StandardCharsets.UTF_8));
+	public static void main(String [] args) throws IOException {
+		for (var arg : args) {
+			var keyValue = arg.split("=", 2);
+			if (keyValue.length != 2) {
+				throw new IllegalArgumentException("Expected key=value argument, got " + arg);
+			}
+			switch (keyValue[0]) {
+				case "records" -> recordsNo = Long.parseLong(keyValue[1]);
+				case "sizes" -> sizes = SizeDistribution.parse(keyValue[1]);
+				case "seed" -> seed = Long.parseLong(keyValue[1]);
+				case "output" -> gzip = "gzip".equalsIgnoreCase(keyValue[1]);
+				case "threads" -> threads = Integer.parseInt(keyValue[1]);
+				default -> throw new IllegalArgumentException("Unknown argument " + keyValue[0]);
 			}
-			os.flush();
 		}
 
-		System.out.println("Test data created at: " + file.getAbsolutePath());
+		var testDataDir = Paths.get("").toAbsolutePath().resolve("testdata");
+		var file = new SyntheticRecords(seed, sizes).write(testDataDir, recordsNo, gzip, threads);
+		System.out.println("Test data created at: " + file.toAbsolutePath());
 	}
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.pawelmaslej.arcadedbperformancetests;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import com.arcadedb.remote.RemoteDatabase;
+import com.pawelmaslej.arcadedbperformancetests.test.Backend;
+import com.pawelmaslej.arcadedbperformancetests.test.BackendConfig;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
+import com.pawelmaslej.arcadedbperformancetests.test.TestCode;
+
+/**
+ * SQL over HTTP with {@link RemoteDatabase}, see {@link RemoteDatabaseTestCode}. Each worker opens own connection.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class RemoteDatabaseBackend implements Backend {
+
+	public static final int scanPageSize = 10000; // 0 scans each type with single query, limited to 20000 records
+	public static final int scriptBatchSize = 1000; // 0 writes each vertex and edge with separate request
+
+	BackendConfig config;
+	RemoteDatabase rd;
+
+	@Override
+	public String name() {
+		return "remote-database";
+	}
+
+	@Override
+	public Set<Capability> capabilities() {
+		return EnumSet.of(Capability.REMOTE, Capability.CONCURRENT_WORKERS, Capability.TRANSACTIONS);
+	}
+
+	@Override
+	public String embeddedCounterpart() {
+		return "sql-local";
+	}
+
+	@Override
+	public void open(BackendConfig config) throws Exception {
+		this.config = config;
+		rd = connect();
+		rd.command("sqlscript", "create vertex type inputstructure if not exists;");
+		rd.command("sqlscript", "create vertex type endpoint if not exists; create property endpoint.name if not exists string; create index if not exists on endpoint (name) unique;");
+		rd.command("sqlscript", "create vertex type predictionstructure if not exists;");
+		rd.command("sqlscript", "create edge type e_endpoint if not exists;");
+		rd.command("sqlscript", "create edge type e_predictionstructure if not exists;");
+	}
+
+	private RemoteDatabase connect() {
+		return new RemoteDatabase(config.host(), config.port(), config.database(), config.user(), config.password());
+	}
+
+	@Override
+	public TestCode createTestCode(PerformanceTest test) {
+		return configure(new RemoteDatabaseTestCode(rd, test, true));
+	}
+
+	@Override
+	public TestCode createWorkerTestCode(PerformanceTest test) {
+		return configure(new RemoteDatabaseTestCode(connect(), test, true));
+	}
+
+	static RemoteDatabaseTestCode configure(RemoteDatabaseTestCode code) {
+		code.setScanPageSize(scanPageSize);
+		code.setScriptBatchSize(scriptBatchSize);
+		return code;
+	}
+
+	@Override
+	public void close() throws Exception {
+		if (rd != null) {
+			rd.close();
+		}
+	}
+}
\ No newline at end of file
@@ -1,50 +1,93 @@
 package com.pawelmaslej.arcadedbperformancetests;
 
 import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import com.arcadedb.database.BasicDatabase;
+import com.arcadedb.database.Identifiable;
 import com.arcadedb.database.RID;
+import com.arcadedb.graph.MutableVertex;
 import com.arcadedb.graph.Vertex;
 import com.arcadedb.graph.Vertex.DIRECTION;
+import com.arcadedb.query.sql.executor.Result;
+import com.arcadedb.query.sql.executor.ResultSet;
 import com.arcadedb.remote.RemoteDatabase;
-import com.arcadedb.remote.RemoteMutableVertex;
+import com.google.common.collect.Lists;
 import com.pawelmaslej.arcadedbperformancetests.test.EndpointData;
 import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest.DeleteStrategy;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest.Operation;
 import com.pawelmaslej.arcadedbperformancetests.test.PredictionStructureInputData;
 import com.pawelmaslej.arcadedbperformancetests.test.StructureData;
-import com.pawelmaslej.arcadedbperformancetests.utils.Utils;
+import com.pawelmaslej.arcadedbperformancetests.test.TestCode;
 
 /**
+ * SQL and record API of {@link RemoteDatabase}. Embedded database runs the same requests in process,
+ * which leaves out protocol and serialization.
+ *
  * @author Pawel Maslej
  * @since 31 Oct 2023
  */
-public class RemoteDatabaseTestCode {
+public class RemoteDatabaseTestCode implements TestCode {
 
-	RemoteDatabase rd;
+	BasicDatabase rd;
 	PerformanceTest test;
 	boolean tx;
+	boolean remote;
+	int scanPageSize;
+	int scriptBatchSize;
 
-	public RemoteDatabaseTestCode(RemoteDatabase rd,
+	public RemoteDatabaseTestCode(BasicDatabase rd,
 		PerformanceTest test,
 		boolean tx) {
 		this.rd = rd;
 		this.test = test;
 		this.tx = tx;
+		this.remote = rd instanceof RemoteDatabase;
 	}
 
-	public Function<List<String>, List<String>> insertFunction() {
-		return (jsonList) -> {
-			List<RemoteMutableVertex> vertices = new ArrayList<>(jsonList.size());
+	/** Page size of keyset paginated type scans, 0 scans whole type with single query. */
+	public void setScanPageSize(int scanPageSize) {
+		this.scanPageSize = scanPageSize;
+	}
+
+	/**
+	 * Records written by single parameterised sqlscript request in INSERT and GENERATE_PREDICTION,
+	 * 0 writes each vertex and edge with separate request.
+	 */
+	public void setScriptBatchSize(int scriptBatchSize) {
+		this.scriptBatchSize = scriptBatchSize;
+	}
+
+	@Override
+	public Function<List<Object>, List<String>> insertFunction() {
+		if (scriptBatchSize > 0) {
+			return (payloads) -> {
+				List<String> ids = new ArrayList<>(payloads.size());
+				for (var scriptPayloads : Lists.partition(payloads, scriptBatchSize)) {
+					ids.addAll(insertInScript(scriptPayloads));
+				}
+				return ids;
+			};
+		}
+		return (payloads) -> {
+			List<MutableVertex> vertices = new ArrayList<>(payloads.size());
 			txOpen();
 			try {
-				for (var json : jsonList) {
+				for (var payload : payloads) {
 					var v = rd.newVertex("inputstructure");
-					v.set("json", json);
+					v.set("json", payload);
 					v.save();
+					addRoundTrips(1);
 					vertices.add(v);
 				}
 			}
@@ -55,42 +98,142 @@ public class RemoteDatabaseTestCode {
 		};
 	}
 
+	@Override
 	public Function<List<PredictionStructureInputData>, List<String>> predictFunction() {
-		return (inputDataList) -> {
-			List<RemoteMutableVertex> vertices = new ArrayList<>(inputDataList.size());
-			for (var inputData : inputDataList) {
-				txOpen();
-				long start = Calendar.getInstance().getTimeInMillis();
-				try {
-					var isv = (Vertex) rd.lookupByRID(asRID(inputData.getInputStructureId()), true);
-					var inputStructureJson = isv.getString("json");
-					var psv = rd.newVertex("predictionstructure");
-					psv.set("json", inputStructureJson);
-					psv.set("alerts", Utils.listToString(inputData.getAlerts()));
-					psv.save();
-
-					var edge1 = psv.newEdge("e_endpoint", asRID(inputData.getEndpointId()), true);
-					var edge2 = isv.newEdge("e_predictionstructure", psv, true);
-					edge1.save();
-					edge2.save();
-
-					vertices.add(psv);
+		if (scriptBatchSize > 0) {
+			return (inputDataList) -> {
+				List<String> ids = new ArrayList<>(inputDataList.size());
+				for (var scriptInputDataList : Lists.partition(inputDataList, scriptBatchSize)) {
+					ids.addAll(predictInScript(scriptInputDataList));
 				}
-				finally {
-					try {
-						txCommit();
-					}
-					catch (Exception e) {
-						long end = Calendar.getInstance().getTimeInMillis();
-						System.out.println("Time: " + (end - start));
-						throw e;
-					}
-				}
-			}
+				return ids;
+			};
+		}
+		return (inputDataList) -> {
+			List<MutableVertex> vertices = test.generatePredictionsInTransactions(this, tx, inputDataList, inputData -> {
+				var isv = (Vertex) rd.lookupByRID(asRID(inputData.getInputStructureId()), true);
+				var inputStructureJson = isv.get("json");
+				var psv = rd.newVertex("predictionstructure");
+				psv.set("json", inputStructureJson);
+				psv.set("alerts", PerformanceTest.getAlertsEncoding().encode(inputData.getAlerts()));
+				psv.save();
+
+				var edge1 = psv.newEdge("e_endpoint", asRID(inputData.getEndpointId()), true);
+				var edge2 = isv.newEdge("e_predictionstructure", psv, true);
+				edge1.save();
+				edge2.save();
+				addRoundTrips(6);
+				return psv;
+			});
 			return vertices.stream().map(v -> v.getIdentity().toString()).toList();
 		};
 	}
 
+	/** Creates all input structures with single request, json payloads are passed as parameters. */
+	private List<String> insertInScript(List<Object> payloads) {
+		var script = new StringBuilder();
+		Map<String, Object> params = new HashMap<>();
+		if (tx) {
+			script.append("BEGIN;\n");
+		}
+		for (int i=0; i<payloads.size(); i++) {
+			script.append("LET $v%s = CREATE VERTEX inputstructure SET json = :json%s;\n".formatted(i, i));
+			params.put("json" + i, payloads.get(i));
+		}
+		if (tx) {
+			script.append("COMMIT RETRY %s;\n".formatted(PerformanceTest.getTransactionRetries()));
+		}
+		appendReturn(script, "$v", payloads.size());
+		return executeScript(script.toString(), params, payloads.size());
+	}
+
+	/**
+	 * Creates prediction structures with their edges with single request. Input structure json is copied server side,
+	 * transactions of {@link PerformanceTest#getPredictionsPerTransaction()} predictions are committed within the script.
+	 */
+	private List<String> predictInScript(List<PredictionStructureInputData> inputDataList) {
+		var script = new StringBuilder();
+		Map<String, Object> params = new HashMap<>();
+		int i = 0;
+		for (var transactionInputs : Lists.partition(inputDataList, PerformanceTest.getPredictionsPerTransaction())) {
+			if (tx) {
+				script.append("BEGIN;\n");
+			}
+			for (var inputData : transactionInputs) {
+				// record ids are generated by database, only payloads need parameters
+				var inputStructureId = asRID(inputData.getInputStructureId());
+				var endpointId = asRID(inputData.getEndpointId());
+				script.append("LET $i%s = SELECT json FROM %s;\n".formatted(i, inputStructureId));
+				script.append("LET $p%s = CREATE VERTEX predictionstructure SET json = $i%s[0].json, alerts = :alerts%s;\n".formatted(i, i, i));
+				script.append("CREATE EDGE e_endpoint FROM $p%s TO %s;\n".formatted(i, endpointId));
+				script.append("CREATE EDGE e_predictionstructure FROM %s TO $p%s;\n".formatted(inputStructureId, i));
+				params.put("alerts" + i, PerformanceTest.getAlertsEncoding().encode(inputData.getAlerts()));
+				i++;
+			}
+			if (tx) {
+				script.append("COMMIT RETRY %s;\n".formatted(PerformanceTest.getTransactionRetries()));
+			}
+		}
+		appendReturn(script, "$p", inputDataList.size());
+		return executeScript(script.toString(), params, inputDataList.size());
+	}
+
+	/** Round trips are reported only for remote database. */
+	private void addRoundTrips(long count) {
+		if (remote) {
+			test.addRoundTrips(count);
+		}
+	}
+
+	private static void appendReturn(StringBuilder script, String variablePrefix, int count) {
+		script.append("RETURN [");
+		for (int i=0; i<count; i++) {
+			script.append(i > 0 ? ", " : "").append(variablePrefix).append(i);
+		}
+		script.append("];");
+	}
+
+	private List<String> executeScript(String script, Map<String, Object> params, int expectedIds) {
+		var rs = rd.command("sqlscript", script, params);
+		addRoundTrips(1);
+		var ids = returnedIds(rs);
+		if (ids.size() != expectedIds) {
+			throw new RuntimeException("Script returned %s ids, %s expected".formatted(ids.size(), expectedIds));
+		}
+		return ids;
+	}
+
+	/** Returned list is either expanded into records or wrapped in single value property, nested lists are flattened. */
+	private static List<String> returnedIds(ResultSet rs) {
+		List<String> ids = new ArrayList<>();
+		while (rs.hasNext()) {
+			var result = rs.next();
+			if (result.getIdentity().isPresent()) {
+				ids.add(result.getIdentity().get().toString());
+			}
+			else {
+				addIds(ids, result.getProperty("value"));
+			}
+		}
+		return ids;
+	}
+
+	private static void addIds(List<String> ids, Object value) {
+		if (value instanceof Collection<?> values) {
+			values.forEach(v -> addIds(ids, v));
+		}
+		else if (value instanceof Result result && result.getIdentity().isPresent()) {
+			ids.add(result.getIdentity().get().toString());
+		}
+		else if (value instanceof Identifiable identifiable) {
+			ids.add(identifiable.getIdentity().toString());
+		}
+		else if (value != null) {
+			throw new RuntimeException("Unexpected script result: " + value);
+		}
+	}
+
+	@Override
 	public Function<String, String> createEndpointFunction() {
 		return (String endpointName) -> {
 			txOpen();
@@ -102,11 +245,24 @@ public class RemoteDatabaseTestCode {
 		};
 	}
 
+	@Override
 	public Supplier<List<StructureData>> queryAndIterateJsonAllInputStructuresFunction() {
 		return () -> {
 			txOpen();
 			try {
-				//TODO it does not support more than 20000 returned records
+				if (scanPageSize > 0) {
+					List<StructureData> structures = new ArrayList<>();
+					scanType("inputstructure", v -> {
+						String json = PerformanceTest.getPayloadEncoding().decode(v.get("json"));
+						if (json == null || json.isBlank()) {
+							throw new RuntimeException("Json not available");
+						}
+						structures.add(new StructureData(v.getIdentity().toString(), json));
+					});
+					return structures;
+				}
+
+				// single query does not support more than 20000 returned records, use scanPageSize for more
 				var rs = rd.command("sql", "SELECT FROM ?", "inputstructure");
 				List<Vertex> inputStructuresV = new ArrayList<Vertex>();
 				while (rs.hasNext()) {
@@ -115,12 +271,12 @@ public class RemoteDatabaseTestCode {
 				System.out.println("Queried input structures: " + inputStructuresV.size());
 
 				for (var v : inputStructuresV) {
-					String json = v.getString("json");
+					String json = PerformanceTest.getPayloadEncoding().decode(v.get("json"));
 					if (json == null || json.isBlank()) {
 						throw new RuntimeException("Json not available");
 					}
 				}
-				return inputStructuresV.stream().map(v -> new StructureData(v.getIdentity().toString(), v.getString("json"))).toList();
+				return inputStructuresV.stream().map(v -> new StructureData(v.getIdentity().toString(), PerformanceTest.getPayloadEncoding().decode(v.get("json")))).toList();
 			}
 			finally {
 				txRollback();
@@ -128,35 +284,44 @@ public class RemoteDatabaseTestCode {
 		};
 	}
 
-	public Supplier<Integer> queryAndIterateDataAllPredictionStructuresFunction() {
+	@Override
+	public Supplier<Integer> streamAllInputStructuresFunction() {
+		if (scanPageSize <= 0) {
+			return TestCode.super.streamAllInputStructuresFunction();
+		}
 		return () -> {
 			txOpen();
 			try {
-				var predictionStructuresV = rd.command("sql", "SELECT FROM ?", "predictionstructure").toVertices();
-				int edgesCount = 0;
-				int alertsCount = 0;
-				for (var v : predictionStructuresV) {
-					String json = v.getString("json");
+				return scanType("inputstructure", v -> {
+					String json = PerformanceTest.getPayloadEncoding().decode(v.get("json"));
 					if (json == null || json.isBlank()) {
 						throw new RuntimeException("Json not available");
 					}
-					var edges = v.getEdges(DIRECTION.OUT, "e_endpoint").iterator();
-					while (edges.hasNext()) {
-						edgesCount++;
-						var ev = edges.next().getInVertex();
-						String name = ev.getString("name");
-						if (name == null || name.isBlank()) {
-							throw new RuntimeException("Name not available");
-						}
-					}
-					String alerts = v.getString("alerts");
-					if (alerts == null || alerts.isBlank()) {
-						throw new RuntimeException("Json not available");
-					}
-					var alertsList = Utils.listFromString(alerts);
-					alertsCount += alertsList.size();
+				});
+			}
+			finally {
+				txRollback();
+			}
+		};
+	}
+
+	@Override
+	public Supplier<Integer> queryAndIterateDataAllPredictionStructuresFunction() {
+		return () -> {
+			txOpen();
+			try {
+				if (scanPageSize > 0) {
+					int[] relatedCount = new int[1];
+					int predictionStructuresCount = scanType("predictionstructure", v -> relatedCount[0] += iteratePredictionStructure(v));
+					return predictionStructuresCount + relatedCount[0];
+				}
+
+				var predictionStructuresV = rd.command("sql", "SELECT FROM ?", "predictionstructure").toVertices();
+				int relatedCount = 0;
+				for (var v : predictionStructuresV) {
+					relatedCount += iteratePredictionStructure(v);
 				}
-				return predictionStructuresV.size() + edgesCount + alertsCount;
+				return predictionStructuresV.size() + relatedCount;
 			}
 			finally {
 				txRollback();
@@ -164,13 +329,71 @@ public class RemoteDatabaseTestCode {
 		};
 	}
 
+	/** @return number of endpoint edges and alerts of prediction structure */
+	private int iteratePredictionStructure(Vertex v) {
+		String json = PerformanceTest.getPayloadEncoding().decode(v.get("json"));
+		if (json == null || json.isBlank()) {
+			throw new RuntimeException("Json not available");
+		}
+		int edgesCount = 0;
+		var edges = v.getEdges(DIRECTION.OUT, "e_endpoint").iterator();
+		while (edges.hasNext()) {
+			edgesCount++;
+			var ev = edges.next().getInVertex();
+			String name = ev.getString("name");
+			if (name == null || name.isBlank()) {
+				throw new RuntimeException("Name not available");
+			}
+		}
+		return edgesCount + test.countAlerts(v.get("alerts"));
+	}
+
+	/**
+	 * Scans all vertices of type page by page with keyset pagination over @rid. Each page is passed to consumer
+	 * as soon as it arrives, so only one page is held in memory. Prints time to first row and rows/s.
+	 *
+	 * @return number of scanned vertices
+	 */
+	private int scanType(String type, Consumer<Vertex> consumer) {
+		long start = System.nanoTime();
+		long firstRowTime = 0;
+		int rows = 0;
+		int pages = 0;
+		RID lastRid = null;
+		int pageRows;
+		do {
+			var query = lastRid == null
+				? "SELECT FROM %s ORDER BY @rid LIMIT %s".formatted(type, scanPageSize)
+				: "SELECT FROM %s WHERE @rid > %s ORDER BY @rid LIMIT %s".formatted(type, lastRid, scanPageSize);
+			var rs = rd.query("sql", query);
+			pageRows = 0;
+			while (rs.hasNext()) {
+				var v = rs.next().getVertex().get();
+				if (rows == 0 && pageRows == 0) {
+					firstRowTime = System.nanoTime() - start;
+				}
+				consumer.accept(v);
+				lastRid = v.getIdentity();
+				pageRows++;
+			}
+			rows += pageRows;
+			pages++;
+		}
+		while (pageRows == scanPageSize);
+		long time = System.nanoTime() - start;
+		System.out.println("Streamed %s %s in %s pages, time to first row %s ms, %s rows/s".formatted(
+			rows, type, pages, firstRowTime / 1000000, time > 0 ? rows * 1000000000L / time : 0));
+		return rows;
+	}
+
+	@Override
 	public Runnable printStatsFunction() {
 		return () -> {
 			txOpen();
 			try {
-				var inputStructuresCount = ((Integer) rd.command("sql", "SELECT COUNT (*) FROM ?", "inputstructure").next().getProperty("COUNT(*)")).intValue();
-				var predictionStructuresCount = ((Integer) rd.command("sql", "SELECT COUNT (*) FROM ?", "predictionstructure").next().getProperty("COUNT(*)")).intValue();
-				var endpointCount = ((Integer) rd.command("sql", "SELECT COUNT (*) FROM ?", "endpoint").next().getProperty("COUNT(*)")).intValue();
+				var inputStructuresCount = ((Number) rd.command("sql", "SELECT COUNT (*) FROM ?", "inputstructure").next().getProperty("COUNT(*)")).intValue();
+				var predictionStructuresCount = ((Number) rd.command("sql", "SELECT COUNT (*) FROM ?", "predictionstructure").next().getProperty("COUNT(*)")).intValue();
+				var endpointCount = ((Number) rd.command("sql", "SELECT COUNT (*) FROM ?", "endpoint").next().getProperty("COUNT(*)")).intValue();
 				test.printStats(inputStructuresCount, predictionStructuresCount, endpointCount);
 			}
 			finally {
@@ -179,6 +402,7 @@ public class RemoteDatabaseTestCode {
 		};
 	}
 
+	@Override
 	public Supplier<List<EndpointData>> findAllEndpointsFunction() {
 		return () -> {
 			txOpen();
@@ -192,11 +416,12 @@ public class RemoteDatabaseTestCode {
 		};
 	}
 
+	@Override
 	public Function<String, List<String>> findAllPredictionStructuresByEndpointIdFunction() {
 		return id -> {
 			txOpen();
 			try {
-				var ev = (Vertex) rd.lookupByRID(asRID(id));
+				var ev = (Vertex) rd.lookupByRID(asRID(id), true);
 				var edgesIter = ev.getEdges(DIRECTION.IN, "e_endpoint").iterator();
 				List<String> ids = new LinkedList<String>();
 				while (edgesIter.hasNext()) {
@@ -214,18 +439,23 @@ public class RemoteDatabaseTestCode {
 		};
 	}
 
+	@Override
 	public void txOpen() {
 		if (tx) {
 			rd.begin();
+			addRoundTrips(1);
 		}
 	}
 
+	@Override
 	public void txCommit() {
 		if (tx) {
 			rd.commit();
+			addRoundTrips(1);
 		}
 	}
 
+	@Override
 	public void txRollback() {
 		if (tx) {
 			rd.rollback();
@@ -236,26 +466,79 @@ public class RemoteDatabaseTestCode {
 		return new RID(null, id);
 	}
 
-	public Runnable deleteAllDataFunction() {
-		return () -> {
-			rd.begin();
-			var vertices = rd.command("sql", "SELECT FROM predictionstructure").toVertices();
-			for (var v : vertices) {
-				rd.deleteRecord(v);
-			}
-			rd.commit();
-			rd.begin();
-			vertices = rd.command("sql", "SELECT FROM inputstructure").toVertices();
-			for (var v : vertices) {
-				rd.deleteRecord(v);
+	@Override
+	public Function<DeleteStrategy, Long> deleteAllDataFunction() {
+		return strategy -> switch (strategy) {
+			case TRUNCATE_TYPE -> truncateTypes();
+			case BUCKET_PARALLEL -> throw new UnsupportedOperationException("%s requires embedded database".formatted(strategy));
+			case BATCHED_COMMIT -> deleteInBatches(PerformanceTest.getDeleteBatchSize());
+			case UNBATCHED -> deleteEachVertex();
+		};
+	}
+
+	/** Buckets are emptied in parallel through embedded API only, embedded database runs the same SQL. */
+	@Override
+	public Set<DeleteStrategy> supportedDeleteStrategies() {
+		return EnumSet.complementOf(EnumSet.of(DeleteStrategy.BUCKET_PARALLEL));
+	}
+
+	private long truncateTypes() {
+		long deleted = 0;
+		for (var type : DatabaseDeletes.VERTEX_TYPES) {
+			deleted += ((Number) rd.command("sql", "SELECT COUNT (*) FROM ?", type).next().getProperty("COUNT(*)")).longValue();
+		}
+		long start = System.nanoTime();
+		rd.command("sqlscript", DatabaseDeletes.TRUNCATE_SCRIPT);
+		addRoundTrips(1);
+		test.recordLatency(Operation.DELETE_BATCH, System.nanoTime() - start);
+		return deleted;
+	}
+
+	/** Each batch is single DELETE request, records are never transferred to the client. */
+	private long deleteInBatches(int batchSize) {
+		long deleted = 0;
+		for (var type : DatabaseDeletes.VERTEX_TYPES) {
+			long count;
+			do {
+				long start = System.nanoTime();
+				txOpen();
+				try {
+					count = ((Number) rd.command("sql", "DELETE FROM %s LIMIT %s".formatted(type, batchSize)).next().getProperty("count")).longValue();
+				}
+				finally {
+					txCommit();
+				}
+				addRoundTrips(1);
+				test.recordLatency(Operation.DELETE_BATCH, System.nanoTime() - start);
+				deleted += count;
 			}
-			rd.commit();
+			while (count > 0);
+		}
+		return deleted;
+	}
+
+	private long deleteEachVertex() {
+		long deleted = 0;
+		for (var type : DatabaseDeletes.VERTEX_TYPES) {
+			long start = System.nanoTime();
 			rd.begin();
-			vertices = rd.command("sql", "SELECT FROM endpoint").toVertices();
+			var vertices = rd.command("sql", "SELECT FROM " + type).toVertices();
 			for (var v : vertices) {
 				rd.deleteRecord(v);
 			}
 			rd.commit();
-		};
+			addRoundTrips(3 + vertices.size());
+			test.recordLatency(Operation.DELETE_BATCH, System.nanoTime() - start);
+			deleted += vertices.size();
+		}
+		return deleted;
+	}
+
+	/** Embedded database is shared by all workers and closed by its backend. */
+	@Override
+	public void close() {
+		if (remote) {
+			rd.close();
+		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package com.pawelmaslej.arcadedbperformancetests;
+
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
+import com.pawelmaslej.arcadedbperformancetests.test.TestCode;
+
+/**
+ * Embedded database through the same SQL scripts, scans and transactions as {@link RemoteDatabaseBackend},
+ * see {@link RemoteDatabaseTestCode}.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class SqlLocalBackend extends EmbeddedBackend {
+
+	@Override
+	public String name() {
+		return "sql-local";
+	}
+
+	@Override
+	public TestCode createTestCode(PerformanceTest test) {
+		return RemoteDatabaseBackend.configure(new RemoteDatabaseTestCode(db, test, true));
+	}
+
+	@Override
+	public TestCode createWorkerTestCode(PerformanceTest test) {
+		// transactions of embedded database are bound to the calling thread
+		return RemoteDatabaseBackend.configure(new RemoteDatabaseTestCode(db, test, true));
+	}
+}
\ No newline at end of file
@@ -1,28 +1,36 @@
 package com.pawelmaslej.arcadedbperformancetests;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.structure.Direction;
 import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import com.arcadedb.database.BasicDatabase;
+import com.arcadedb.database.Database;
+import com.arcadedb.gremlin.ArcadeGraph;
 import com.pawelmaslej.arcadedbperformancetests.test.EndpointData;
 import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest.DeleteStrategy;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest.Operation;
 import com.pawelmaslej.arcadedbperformancetests.test.PredictionStructureInputData;
 import com.pawelmaslej.arcadedbperformancetests.test.StructureData;
-import com.pawelmaslej.arcadedbperformancetests.utils.Utils;
+import com.pawelmaslej.arcadedbperformancetests.test.TestCode;
 
 /**
  * @author Pawel Maslej
  * @since 31 Oct 2023
  */
-public class TinkerPopTestCode {
+public class TinkerPopTestCode implements TestCode {
 
 	Graph graph;
 	GraphTraversalSource gts;
@@ -39,14 +47,15 @@ public class TinkerPopTestCode {
 		this.tx = tx;
 	}
 
-	public Function<List<String>, List<String>> insertFunction() {
-		return (jsonList) -> {
-			List<Vertex> vertices = new ArrayList<>(jsonList.size());
+	@Override
+	public Function<List<Object>, List<String>> insertFunction() {
+		return (payloads) -> {
+			List<Vertex> vertices = new ArrayList<>(payloads.size());
 			txOpen();
 			try {
-				for (var json : jsonList) {
+				for (var payload : payloads) {
 					var v = graph.addVertex("inputstructure");
-					v.property("json", json);
+					v.property("json", payload);
 					vertices.add(v);
 				}
 			}
@@ -57,31 +66,25 @@ public class TinkerPopTestCode {
 		};
 	}
 
+	@Override
 	public Function<List<PredictionStructureInputData>, List<String>> predictFunction() {
 		return (inputDataList) -> {
-			List<Vertex> vertices = new ArrayList<>(inputDataList.size());
-			for (var inputData : inputDataList) {
-				txOpen();
-				try {
-					var isv = graph.vertices(inputData.getInputStructureId()).next();
-					var inputStructureJson = isv.value("json");
-					var psv = graph.addVertex("predictionstructure");
-					psv.property("json", inputStructureJson);
-					var ev = graph.vertices(inputData.getEndpointId()).next();
-					psv.addEdge("e_endpoint", ev);
-					isv.addEdge("e_predictionstructure", psv);
-					psv.property("alerts", Utils.listToString(inputData.getAlerts()));
-
-					vertices.add(psv);
-				}
-				finally {
-					txCommit();
-				}
-			}
+			List<Vertex> vertices = test.generatePredictionsInTransactions(this, tx, inputDataList, inputData -> {
+				var isv = graph.vertices(inputData.getInputStructureId()).next();
+				var inputStructureJson = isv.value("json");
+				var psv = graph.addVertex("predictionstructure");
+				psv.property("json", inputStructureJson);
+				var ev = graph.vertices(inputData.getEndpointId()).next();
+				psv.addEdge("e_endpoint", ev);
+				isv.addEdge("e_predictionstructure", psv);
+				psv.property("alerts", PerformanceTest.getAlertsEncoding().encode(inputData.getAlerts()));
+				return psv;
+			});
 			return vertices.stream().map(v -> v.id().toString()).toList();
 		};
 	}
 
+	@Override
 	public Function<String, String> createEndpointFunction() {
 		return (String endpointName) -> {
 			txOpen();
@@ -92,6 +95,7 @@ public class TinkerPopTestCode {
 		};
 	}
 
+	@Override
 	public Supplier<List<StructureData>> queryAndIterateJsonAllInputStructuresFunction() {
 		return () -> {
 			txOpen();
@@ -101,12 +105,12 @@ public class TinkerPopTestCode {
 					.hasLabel("inputstructure")
 					.toList();
 				for (var v : inputStructuresV) {
-					String json = v.value("json");
+					String json = PerformanceTest.getPayloadEncoding().decode(v.value("json"));
 					if (json == null || json.isBlank()) {
 						throw new RuntimeException("Json not available");
 					}
 				}
-				return inputStructuresV.stream().map(v -> new StructureData(v.id().toString(), v.value("json"))).toList();
+				return inputStructuresV.stream().map(v -> new StructureData(v.id().toString(), PerformanceTest.getPayloadEncoding().decode(v.value("json")))).toList();
 			}
 			finally {
 				txRollback();
@@ -114,6 +118,7 @@ public class TinkerPopTestCode {
 		};
 	}
 
+	@Override
 	public Supplier<Integer> queryAndIterateDataAllPredictionStructuresFunction() {
 		return () -> {
 			txOpen();
@@ -125,7 +130,7 @@ public class TinkerPopTestCode {
 				int edgesCount = 0;
 				int alertsCount = 0;
 				for (var v : predictionStructuresV) {
-					String json = v.value("json");
+					String json = PerformanceTest.getPayloadEncoding().decode(v.value("json"));
 					if (json == null || json.isBlank()) {
 						throw new RuntimeException("Json not available");
 					}
@@ -138,12 +143,7 @@ public class TinkerPopTestCode {
 							throw new RuntimeException("Name not available");
 						}
 					}
-					String alerts = v.value("alerts");
-					if (alerts == null || alerts.isBlank()) {
-						throw new RuntimeException("Json not available");
-					}
-					var alertsList = Utils.listFromString(alerts);
-					alertsCount += alertsList.size();
+					alertsCount += test.countAlerts(v.value("alerts"));
 				}
 				return predictionStructuresV.size() + edgesCount + alertsCount;
 			}
@@ -153,6 +153,7 @@ public class TinkerPopTestCode {
 		};
 	}
 
+	@Override
 	public Runnable printStatsFunction() {
 		return () -> {
 			txOpen();
@@ -177,6 +178,7 @@ public class TinkerPopTestCode {
 		};
 	}
 
+	@Override
 	public Supplier<List<EndpointData>> findAllEndpointsFunction() {
 		return () -> {
 			txOpen();
@@ -193,6 +195,7 @@ public class TinkerPopTestCode {
 		};
 	}
 
+	@Override
 	public Function<String, List<String>> findAllPredictionStructuresByEndpointIdFunction() {
 		return id -> {
 			txOpen();
@@ -215,6 +218,7 @@ public class TinkerPopTestCode {
 		};
 	}
 
+	@Override
 	public void txOpen() {
 		if (tx) {
 			if (graph.tx().isOpen()) {
@@ -224,38 +228,119 @@ public class TinkerPopTestCode {
 		}
 	}
 
+	@Override
 	public void txCommit() {
 		if (tx) {
 			graph.tx().commit();
 		}
 	}
 
+	@Override
 	public void txRollback() {
 		if (tx) {
 			graph.tx().rollback();
 		}
 	}
 
-	public Runnable deleteAllDataFunction() {
-		return () -> {
-			txOpen();
-			Iterator<Vertex> iter = null;
-			try {
-				iter = graph.vertices();
+	/** Measurable for embedded database only. */
+	@Override
+	public Supplier<Long> storageSizeFunction() {
+		return () -> graph instanceof ArcadeGraph arcadeGraph && arcadeGraph.getDatabase() instanceof Database db
+			? DatabaseTestCode.storageSize(db)
+			: -1L;
+	}
+
+	@Override
+	public Function<DeleteStrategy, Long> deleteAllDataFunction() {
+		return strategy -> switch (strategy) {
+			case TRUNCATE_TYPE -> DatabaseDeletes.truncateTypes(arcadeDatabase(strategy), test);
+			case BUCKET_PARALLEL -> {
+				if (!(arcadeDatabase(strategy) instanceof Database db)) {
+					throw new UnsupportedOperationException("%s requires embedded database".formatted(strategy));
+				}
+				yield DatabaseDeletes.deleteBucketsInParallel(db, test, PerformanceTest.getDeleteBatchSize());
 			}
-			finally {
-				txCommit();
+			case BATCHED_COMMIT -> deleteInBatches(PerformanceTest.getDeleteBatchSize());
+			case UNBATCHED -> deleteEachVertex();
+		};
+	}
+
+	/** Truncate needs database of ArcadeGraph, parallel delete of buckets needs embedded one. */
+	@Override
+	public Set<DeleteStrategy> supportedDeleteStrategies() {
+		var strategies = EnumSet.of(DeleteStrategy.BATCHED_COMMIT, DeleteStrategy.UNBATCHED);
+		if (graph instanceof ArcadeGraph arcadeGraph) {
+			strategies.add(DeleteStrategy.TRUNCATE_TYPE);
+			if (arcadeGraph.getDatabase() instanceof Database) {
+				strategies.add(DeleteStrategy.BUCKET_PARALLEL);
 			}
-			while (iter.hasNext()) {
-				var v = iter.next();
+		}
+		return strategies;
+	}
+
+	private BasicDatabase arcadeDatabase(DeleteStrategy strategy) {
+		if (!(graph instanceof ArcadeGraph arcadeGraph)) {
+			throw new UnsupportedOperationException("%s requires ArcadeGraph".formatted(strategy));
+		}
+		return arcadeGraph.getDatabase();
+	}
+
+	/** Drops up to batchSize vertices of a type per transaction until none is left. */
+	private long deleteInBatches(int batchSize) {
+		long deleted = 0;
+		for (var type : DatabaseDeletes.VERTEX_TYPES) {
+			long count;
+			do {
+				long start = System.nanoTime();
 				txOpen();
 				try {
-					v.remove();
+					count = gts.clone().V().hasLabel(type).limit(batchSize).sideEffect(__.drop()).count().next();
 				}
 				finally {
 					txCommit();
 				}
+				test.recordLatency(Operation.DELETE_BATCH, System.nanoTime() - start);
+				deleted += count;
 			}
-		};
+			while (count > 0);
+		}
+		return deleted;
+	}
+
+	private long deleteEachVertex() {
+		txOpen();
+		Iterator<Vertex> iter = null;
+		try {
+			iter = graph.vertices();
+		}
+		finally {
+			txCommit();
+		}
+		long deleted = 0;
+		while (iter.hasNext()) {
+			var v = iter.next();
+			long start = System.nanoTime();
+			txOpen();
+			try {
+				v.remove();
+			}
+			finally {
+				txCommit();
+			}
+			test.recordLatency(Operation.DELETE_BATCH, System.nanoTime() - start);
+			deleted++;
+		}
+		return deleted;
+	}
+
+	/** Closes traversal source only, graph of a local worker shares embedded database with other workers. */
+	@Override
+	public void close() {
+		try {
+			gts.close();
+		}
+		catch (Exception e) {
+			throw new RuntimeException(e);
+		}
 	}
 }
\ No newline at end of file
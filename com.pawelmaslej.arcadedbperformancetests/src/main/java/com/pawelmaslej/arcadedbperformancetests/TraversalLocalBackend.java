@@ -0,0 +1,34 @@
+package com.pawelmaslej.arcadedbperformancetests;
+
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
+import com.pawelmaslej.arcadedbperformancetests.test.TestCode;
+
+/**
+ * Embedded {@link com.arcadedb.gremlin.ArcadeGraph} through Gremlin traversals, see {@link TraversalTinkerPopTestCode}.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class TraversalLocalBackend extends EmbeddedGraphBackend {
+
+	@Override
+	public String name() {
+		return "traversal-local";
+	}
+
+	@Override
+	public TestCode createTestCode(PerformanceTest test) {
+		return configure(new TraversalTinkerPopTestCode(gts, test, true));
+	}
+
+	@Override
+	public TestCode createWorkerTestCode(PerformanceTest test) {
+		return configure(new TraversalTinkerPopTestCode(openGraph().traversal(), test, true));
+	}
+
+	/** Same traversals as traversal-remote, so the two differ by Gremlin Server only. */
+	private static TraversalTinkerPopTestCode configure(TraversalTinkerPopTestCode code) {
+		code.setTraversalBatchSize(TraversalRemoteBackend.traversalBatchSize);
+		return code;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,85 @@
+package com.pawelmaslej.arcadedbperformancetests;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.apache.tinkerpop.gremlin.driver.Cluster;
+import org.apache.tinkerpop.gremlin.driver.remote.DriverRemoteConnection;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+
+import com.arcadedb.remote.RemoteDatabase;
+import com.pawelmaslej.arcadedbperformancetests.test.Backend;
+import com.pawelmaslej.arcadedbperformancetests.test.BackendConfig;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
+import com.pawelmaslej.arcadedbperformancetests.test.TestCode;
+
+/**
+ * Gremlin Server plugin reached with TinkerPop driver, see {@link TraversalTinkerPopTestCode}.
+ * Schema is created over HTTP in {@link BackendConfig#database()}, which must be the graph served by Gremlin Server.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class TraversalRemoteBackend implements Backend {
+
+	public static final int traversalBatchSize = 500; // 0 submits one traversal per record
+
+	Cluster cluster;
+	DriverRemoteConnection drc;
+	GraphTraversalSource gts;
+
+	@Override
+	public String name() {
+		return "traversal-remote";
+	}
+
+	@Override
+	public Set<Capability> capabilities() {
+		return EnumSet.of(Capability.REMOTE, Capability.CONCURRENT_WORKERS, Capability.TRANSACTIONS);
+	}
+
+	@Override
+	public String embeddedCounterpart() {
+		return "traversal-local";
+	}
+
+	@Override
+	public void open(BackendConfig config) throws Exception {
+		var rd = new RemoteDatabase(config.host(), config.port(), config.database(), config.user(), config.password());
+		rd.command("sqlscript", "create vertex type endpoint if not exists; create property endpoint.name if not exists string; create index if not exists on endpoint (name) unique;");
+		rd.close();
+
+		cluster = Cluster.build()
+			.port(config.gremlinPort())
+			.addContactPoint(config.host())
+			.credentials(config.user(), config.password())
+			.create();
+		drc = DriverRemoteConnection.using(cluster);
+		gts = new GraphTraversalSource(drc);
+	}
+
+	@Override
+	public TestCode createTestCode(PerformanceTest test) {
+		var code = new TraversalTinkerPopTestCode(gts, test, true);
+		code.setTraversalBatchSize(traversalBatchSize);
+		return code;
+	}
+
+	@Override
+	public TestCode createWorkerTestCode(PerformanceTest test) {
+		var code = new TraversalTinkerPopTestCode(new GraphTraversalSource(DriverRemoteConnection.using(cluster)), test, true);
+		code.setTraversalBatchSize(traversalBatchSize);
+		return code;
+	}
+
+	@Override
+	public void close() throws Exception {
+		if (gts != null) {
+			gts.close();
+			drc.close();
+		}
+		if (cluster != null) {
+			cluster.close();
+		}
+	}
+}
\ No newline at end of file
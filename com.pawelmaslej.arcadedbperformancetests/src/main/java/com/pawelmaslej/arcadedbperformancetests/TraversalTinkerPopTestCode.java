@@ -1,28 +1,48 @@
 package com.pawelmaslej.arcadedbperformancetests;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import org.apache.tinkerpop.gremlin.process.remote.traversal.strategy.decoration.RemoteStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.Scope;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Transaction;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 
+import com.arcadedb.database.BasicDatabase;
+import com.arcadedb.database.Database;
+import com.arcadedb.gremlin.ArcadeGraph;
+import com.google.common.collect.Lists;
 import com.pawelmaslej.arcadedbperformancetests.test.EndpointData;
 import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest.DeleteStrategy;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest.Operation;
 import com.pawelmaslej.arcadedbperformancetests.test.PredictionStructureInputData;
 import com.pawelmaslej.arcadedbperformancetests.test.StructureData;
-import com.pawelmaslej.arcadedbperformancetests.utils.Utils;
+import com.pawelmaslej.arcadedbperformancetests.test.TestCode;
 
 /**
  * @author Pawel Maslej
  * @since 31 Oct 2023
  */
-public class TraversalTinkerPopTestCode {
+public class TraversalTinkerPopTestCode implements TestCode {
 
 	GraphTraversalSource gts;
 	PerformanceTest test;
 	boolean tx;
+	boolean remote;
+	int traversalBatchSize;
+	Transaction remoteTransaction;
+	GraphTraversalSource transactionGts;
 
 	public TraversalTinkerPopTestCode(
 		GraphTraversalSource gts,
@@ -31,61 +51,150 @@ public class TraversalTinkerPopTestCode {
 		this.gts = gts;
 		this.test = test;
 		this.tx = tx;
+		this.remote = gts.getStrategies().getStrategy(RemoteStrategy.class).isPresent();
 	}
 
-	public Function<List<String>, List<String>> insertFunction() {
-		return (jsonList) -> {
-			List<Object> ids = new ArrayList<Object>(jsonList.size());
-			txOpen();
-			try {
-				for (var json : jsonList) {
-					ids.add(gts.clone().addV("inputstructure").property("json", json).id().next());
+	/**
+	 * Records written by single traversal in INSERT and GENERATE_PREDICTION, 0 submits traversal per record.
+	 * Against Gremlin Server each traversal is one request, so this sets request payload size.
+	 */
+	public void setTraversalBatchSize(int traversalBatchSize) {
+		this.traversalBatchSize = traversalBatchSize;
+	}
+
+	/** New traversal bound to the open Gremlin Server transaction, if any. */
+	private GraphTraversalSource g() {
+		return (transactionGts != null ? transactionGts : gts).clone();
+	}
+
+	@Override
+	public Function<List<Object>, List<String>> insertFunction() {
+		if (traversalBatchSize > 0) {
+			return (payloads) -> inTransaction(() -> {
+				List<String> ids = new ArrayList<>(payloads.size());
+				for (var batch : Lists.partition(payloads, traversalBatchSize)) {
+					ids.addAll(insertInTraversal(batch));
 				}
+				return ids;
+			});
+		}
+		return (payloads) -> inTransaction(() -> {
+			List<String> ids = new ArrayList<>(payloads.size());
+			for (var payload : payloads) {
+				ids.add(g().addV("inputstructure").property("json", payload).id().next().toString());
+				addRoundTrips(1);
 			}
-			finally {
-				txCommit();
+			return ids;
+		});
+	}
+
+	/** Commits writes that succeeded, failed writes are rolled back instead of committed partially. */
+	private <T> T inTransaction(Supplier<T> writes) {
+		txOpen();
+		T result;
+		try {
+			result = writes.get();
+		}
+		catch (RuntimeException e) {
+			try {
+				txRollback();
 			}
-			return ids.stream().map(Object::toString).toList();
-		};
+			catch (RuntimeException rollbackFailure) {
+				e.addSuppressed(rollbackFailure);
+			}
+			throw e;
+		}
+		txCommit();
+		return result;
 	}
 
+	/** Injects payloads as list of maps, unfolded server side into one vertex each. */
+	private List<String> insertInTraversal(List<Object> payloads) {
+		List<Map<String, Object>> inputs = payloads.stream().map(payload -> Map.<String, Object>of("json", payload)).toList();
+		var ids = g()
+			.inject(inputs)
+			.unfold()
+			.as("input")
+			.addV("inputstructure")
+			.property("json", __.select("input").select("json"))
+			.id()
+			.toList();
+		addRoundTrips(1);
+		return checkIds(ids, payloads.size());
+	}
+
+	@Override
 	public Function<List<PredictionStructureInputData>, List<String>> predictFunction() {
+		if (traversalBatchSize > 0) {
+			return (inputDataList) -> test.generatePredictionBatchesInTransactions(this, tx, inputDataList, traversalBatchSize, this::predictInTraversal);
+		}
 		return (inputDataList) -> {
-			List<Object> ids = new ArrayList<>(inputDataList.size());
-			for (var inputData : inputDataList) {
-				txOpen();
-				try {
-					var vQueryList = gts.clone().V(inputData.getInputStructureId()).toList();
-					var isv = vQueryList.get(0);
-					var inputStructureJson = isv.value("json");
-
-					var psv = gts.clone()
-						.addV("predictionstructure")
-						.as("psv")
-						.property("json", inputStructureJson)
-						.property("alerts", Utils.listToString(inputData.getAlerts()))
-						.V(inputData.getEndpointId()).as("ev")
-						.V(isv.id().toString()).as("isv")
-						.addE("e_endpoint").from("psv").to("ev").outV()
-						.addE("e_predictionstructure").from("isv").to("psv").inV()
-						.id()
-						.next();
-
-					ids.add(psv);
-				}
-				finally {
-					txCommit();
-				}
-			}
+			List<Object> ids = test.generatePredictionsInTransactions(this, tx, inputDataList, inputData -> {
+				var vQueryList = g().V(inputData.getInputStructureId()).toList();
+				var isv = vQueryList.get(0);
+				var inputStructureJson = isv.value("json");
+
+				return g()
+					.addV("predictionstructure")
+					.as("psv")
+					.property("json", inputStructureJson)
+					.property("alerts", PerformanceTest.getAlertsEncoding().encode(inputData.getAlerts()))
+					.V(inputData.getEndpointId()).as("ev")
+					.V(isv.id().toString()).as("isv")
+					.addE("e_endpoint").from("psv").to("ev").outV()
+					.addE("e_predictionstructure").from("isv").to("psv").inV()
+					.id()
+					.next();
+			});
+			addRoundTrips(2L * inputDataList.size());
 			return ids.stream().map(id -> id.toString()).toList();
 		};
 	}
 
+	/**
+	 * Creates prediction structures with edges in one traversal. Edge ends have to be looked up by id,
+	 * which V() cannot take from injected data, so each prediction is a chained V(id) section reusing step labels
+	 * (select takes the last one). Input structure json is copied server side, ids are collected in side effect.
+	 */
+	@SuppressWarnings("unchecked")
+	private List<String> predictInTraversal(List<PredictionStructureInputData> inputDataList) {
+		GraphTraversal<Vertex, Edge> t = null;
+		for (var inputData : inputDataList) {
+			var isv = t == null ? g().V(inputData.getInputStructureId()) : t.V(inputData.getInputStructureId());
+			t = isv.as("isv")
+				.addV("predictionstructure").as("psv")
+				.property("json", __.select("isv").values("json"))
+				.property("alerts", PerformanceTest.getAlertsEncoding().encode(inputData.getAlerts()))
+				.sideEffect(__.id().aggregate(Scope.local, "ids"))
+				.V(inputData.getEndpointId()).as("ev")
+				.addE("e_endpoint").from("psv").to("ev")
+				.addE("e_predictionstructure").from("isv").to("psv");
+		}
+		var ids = (Collection<Object>) t.cap("ids").next();
+		addRoundTrips(1);
+		return checkIds(ids, inputDataList.size());
+	}
+
+	private static List<String> checkIds(Collection<Object> ids, int expectedIds) {
+		if (ids.size() != expectedIds) {
+			throw new RuntimeException("Traversal returned %s ids, %s expected".formatted(ids.size(), expectedIds));
+		}
+		return ids.stream().map(Object::toString).toList();
+	}
+
+	/** Round trips are reported only for Gremlin Server, embedded traversals have none. */
+	private void addRoundTrips(long count) {
+		if (remote) {
+			test.addRoundTrips(count);
+		}
+	}
+
+	@Override
 	public Function<String, String> createEndpointFunction() {
 		return (String endpointName) -> {
 			txOpen();
 			try {
-				var t = gts.clone();
+				var t = g();
 				var id = t.addV("endpoint").property("name", endpointName).id().next().toString();
 				return id;
 			}
@@ -95,22 +204,23 @@ public class TraversalTinkerPopTestCode {
 		};
 	}
 
+	@Override
 	public Supplier<List<StructureData>> queryAndIterateJsonAllInputStructuresFunction() {
 		return () -> {
 			txOpen();
 			try {
-				var inputStructuresV = gts.clone()
+				var inputStructuresV = g()
 					.with("evaluationTimeout", 0)
 					.V()
 					.hasLabel("inputstructure")
 					.toList();
 				for (var v : inputStructuresV) {
-					String json = v.value("json");
+					String json = PerformanceTest.getPayloadEncoding().decode(v.value("json"));
 					if (json == null || json.isBlank()) {
 						throw new RuntimeException("Json not available");
 					}
 				}
-				return inputStructuresV.stream().map(v -> new StructureData(v.id().toString(), v.value("json"))).toList();
+				return inputStructuresV.stream().map(v -> new StructureData(v.id().toString(), PerformanceTest.getPayloadEncoding().decode(v.value("json")))).toList();
 			}
 			finally {
 				txRollback();
@@ -118,11 +228,12 @@ public class TraversalTinkerPopTestCode {
 		};
 	}
 
+	@Override
 	public Supplier<Integer> queryAndIterateDataAllPredictionStructuresFunction() {
 		return () -> {
 			txOpen();
 			try {
-				var predictionStructuresV = gts.clone()
+				var predictionStructuresV = g()
 					.with("evaluationTimeout", 0)
 					.V()
 					.hasLabel("predictionstructure")
@@ -130,11 +241,11 @@ public class TraversalTinkerPopTestCode {
 				int edgesCount = 0;
 				int alertsCount = 0;
 				for (var v : predictionStructuresV) {
-					String json = v.value("json");
+					String json = PerformanceTest.getPayloadEncoding().decode(v.value("json"));
 					if (json == null || json.isBlank()) {
 						throw new RuntimeException("Json not available");
 					}
-					var eVertices = gts.clone().V(v.id()).outE("e_endpoint").inV().toList();
+					var eVertices = g().V(v.id()).outE("e_endpoint").inV().toList();
 					for (var ev : eVertices) {
 						edgesCount++;
 						String name = ev.value("name");
@@ -142,12 +253,7 @@ public class TraversalTinkerPopTestCode {
 							throw new RuntimeException("Name not available");
 						}
 					}
-					String alerts = v.value("alerts");
-					if (alerts == null || alerts.isBlank()) {
-						throw new RuntimeException("Json not available");
-					}
-					var alertsList = Utils.listFromString(alerts);
-					alertsCount += alertsList.size();
+					alertsCount += test.countAlerts(v.value("alerts"));
 				}
 				return predictionStructuresV.size() + edgesCount + alertsCount;
 			}
@@ -157,19 +263,20 @@ public class TraversalTinkerPopTestCode {
 		};
 	}
 
+	@Override
 	public Runnable printStatsFunction() {
 		return () -> {
 			txOpen();
 			try {
-				var inputStructuresCount = gts.clone()
+				var inputStructuresCount = g()
 					.V()
 					.hasLabel("inputstructure")
 					.count().toList().get(0);
-				var predictionStructuresCount = gts.clone()
+				var predictionStructuresCount = g()
 						.V()
 						.hasLabel("predictionstructure")
 						.count().toList().get(0);
-				var endpointCount = gts.clone()
+				var endpointCount = g()
 						.V()
 						.hasLabel("endpoint")
 						.count().toList().get(0);
@@ -181,11 +288,12 @@ public class TraversalTinkerPopTestCode {
 		};
 	}
 
+	@Override
 	public Supplier<List<EndpointData>> findAllEndpointsFunction() {
 		return () -> {
 			txOpen();
 			try {
-				var vertices = gts.clone()
+				var vertices = g()
 					.V()
 					.hasLabel("endpoint")
 					.toList();
@@ -197,11 +305,12 @@ public class TraversalTinkerPopTestCode {
 		};
 	}
 
+	@Override
 	public Function<String, List<String>> findAllPredictionStructuresByEndpointIdFunction() {
 		return id -> {
 			txOpen();
 			try {
-				var query = gts.clone()
+				var query = g()
 					.with("evaluationTimeout", 0)
 					.V(id)
 					.inE("e_endpoint")
@@ -215,39 +324,154 @@ public class TraversalTinkerPopTestCode {
 		};
 	}
 
+	/** Gremlin Server transaction is a session, traversals of {@link #g()} run in it until commit or rollback. */
+	@Override
 	public void txOpen() {
 		if (tx) {
-			gts.tx().open();
+			if (remote) {
+				remoteTransaction = gts.tx();
+				transactionGts = remoteTransaction.begin();
+			}
+			else {
+				gts.tx().open();
+			}
 		}
 	}
 
+	@Override
 	public void txCommit() {
 		if (tx) {
-			gts.tx().commit();
+			if (remote) {
+				try {
+					remoteTransaction.commit();
+					addRoundTrips(1);
+				}
+				finally {
+					closeRemoteTransaction();
+				}
+			}
+			else {
+				gts.tx().commit();
+			}
 		}
 	}
 
+	@Override
 	public void txRollback() {
 		if (tx) {
-			gts.tx().rollback();
+			if (remote) {
+				if (remoteTransaction != null) {
+					try {
+						remoteTransaction.rollback();
+					}
+					finally {
+						closeRemoteTransaction();
+					}
+				}
+			}
+			else {
+				gts.tx().rollback();
+			}
 		}
 	}
 
-	public Runnable deleteAllDataFunction() {
-		return () -> {
+	private void closeRemoteTransaction() {
+		remoteTransaction = null;
+		transactionGts = null;
+	}
+
+	/** Measurable for embedded database only. */
+	@Override
+	public Supplier<Long> storageSizeFunction() {
+		return () -> gts.getGraph() instanceof ArcadeGraph arcadeGraph && arcadeGraph.getDatabase() instanceof Database db
+			? DatabaseTestCode.storageSize(db)
+			: -1L;
+	}
+
+	@Override
+	public Function<DeleteStrategy, Long> deleteAllDataFunction() {
+		return strategy -> switch (strategy) {
+			case TRUNCATE_TYPE -> DatabaseDeletes.truncateTypes(arcadeDatabase(strategy), test);
+			case BUCKET_PARALLEL -> {
+				if (!(arcadeDatabase(strategy) instanceof Database db)) {
+					throw new UnsupportedOperationException("%s requires embedded database".formatted(strategy));
+				}
+				yield DatabaseDeletes.deleteBucketsInParallel(db, test, PerformanceTest.getDeleteBatchSize());
+			}
+			case BATCHED_COMMIT -> deleteInBatches(PerformanceTest.getDeleteBatchSize());
+			case UNBATCHED -> deleteEachType();
+		};
+	}
+
+	/** Truncate needs database of ArcadeGraph, parallel delete of buckets needs embedded one. */
+	@Override
+	public Set<DeleteStrategy> supportedDeleteStrategies() {
+		var strategies = EnumSet.of(DeleteStrategy.BATCHED_COMMIT, DeleteStrategy.UNBATCHED);
+		if (gts.getGraph() instanceof ArcadeGraph arcadeGraph) {
+			strategies.add(DeleteStrategy.TRUNCATE_TYPE);
+			if (arcadeGraph.getDatabase() instanceof Database) {
+				strategies.add(DeleteStrategy.BUCKET_PARALLEL);
+			}
+		}
+		return strategies;
+	}
+
+	/** Only local traversal source exposes the graph, Gremlin Server allows traversals only. */
+	private BasicDatabase arcadeDatabase(DeleteStrategy strategy) {
+		if (!(gts.getGraph() instanceof ArcadeGraph arcadeGraph)) {
+			throw new UnsupportedOperationException("%s not available through Gremlin Server".formatted(strategy));
+		}
+		return arcadeGraph.getDatabase();
+	}
+
+	/** Each batch is single traversal dropping up to batchSize vertices and returning their count. */
+	private long deleteInBatches(int batchSize) {
+		long deleted = 0;
+		for (var type : DatabaseDeletes.VERTEX_TYPES) {
+			long count;
+			do {
+				long start = System.nanoTime();
+				txOpen();
+				try {
+					count = g().V().hasLabel(type).limit(batchSize).sideEffect(__.drop()).count().next();
+				}
+				finally {
+					txCommit();
+				}
+				addRoundTrips(1);
+				test.recordLatency(Operation.DELETE_BATCH, System.nanoTime() - start);
+				deleted += count;
+			}
+			while (count > 0);
+		}
+		return deleted;
+	}
+
+	private long deleteEachType() {
+		long deleted = 0;
+		for (var type : DatabaseDeletes.VERTEX_TYPES) {
+			long start = System.nanoTime();
 			txOpen();
 			try {
+				deleted += g().V().hasLabel(type).count().next();
 				//TODO bug, V().drop.iterate() fails on deleting same edges
-				gts.clone().V().hasLabel("predictionstructure").drop().iterate();
-				txCommit();
-				txOpen();
-				gts.clone().V().hasLabel("inputstructure").drop().iterate();
-				txCommit();
-				txOpen();
-				gts.clone().V().hasLabel("endpoint").drop().iterate();
-			} finally {
+				g().V().hasLabel(type).drop().iterate();
+			}
+			finally {
 				txCommit();
 			}
-		};
+			test.recordLatency(Operation.DELETE_BATCH, System.nanoTime() - start);
+		}
+		return deleted;
+	}
+
+	@Override
+	public void close() {
+		try {
+			gts.close();
+		}
+		catch (Exception e) {
+			throw new RuntimeException(e);
+		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,121 @@
+package com.pawelmaslej.arcadedbperformancetests.jmh;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.arcadedb.database.Database;
+import com.arcadedb.database.DatabaseFactory;
+import com.arcadedb.database.RID;
+import com.pawelmaslej.arcadedbperformancetests.utils.Utils;
+
+/**
+ * Embedded database with the same schema and data shape as {@link com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest}
+ * creates, populated once per trial. Subclasses benchmark single operations through one access path.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx1G", "-Xms1G"})
+public abstract class AbstractArcadeDbBenchmark {
+
+	static final String JSON = Utils.toBase64("{\"glossary\": {\"title\": \"example record\", \"RecordDiv\": {\"title\": \"R\", \"RecordList\": {\"RecordEntry\": {\"ID\": \"Record\", \"SortAs\": \"Name\", \"RecordTerm\": \"Standard Generalized Markup Language\", \"Acronym\": \"SGML\", \"Abbrev\": \"ISO 8879:1986\", \"RecordDef\": {\"para\": \"A meta-markup language, used to create markup languages such as DocBook.\", \"RecordSeeAlso\": [\"GML\", \"XML\"]}, \"RecordSee\": \"markup\"}}}}}");
+	static final int ENDPOINTS = 7;
+
+	@Param({"10000"})
+	int structures;
+
+	Path dbPath;
+	DatabaseFactory factory;
+	Database db;
+
+	List<RID> inputStructureIds;
+	List<RID> predictionStructureIds;
+	List<RID> endpointIds;
+	int next;
+
+	@Setup(Level.Trial)
+	public void setupDatabase() throws IOException {
+		dbPath = Files.createTempDirectory("arcadedb-jmh");
+		factory = new DatabaseFactory(dbPath.toString());
+		factory.setAutoTransaction(false);
+		db = factory.create();
+		db.setAutoTransaction(false);
+		db.command("sqlscript", "create vertex type inputstructure if not exists; create vertex type predictionstructure if not exists;"
+			+ "create vertex type endpoint if not exists; create property endpoint.name if not exists string; create index if not exists on endpoint (name) unique;"
+			+ "create edge type e_endpoint if not exists; create edge type e_predictionstructure if not exists;");
+
+		endpointIds = new ArrayList<>(ENDPOINTS);
+		inputStructureIds = new ArrayList<>(structures);
+		predictionStructureIds = new ArrayList<>(structures);
+		db.begin();
+		for (int i=0; i<ENDPOINTS; i++) {
+			var ev = db.newVertex("endpoint");
+			ev.set("name", "Endpoint " + i);
+			ev.save();
+			endpointIds.add(ev.getIdentity());
+		}
+		for (int i=0; i<structures; i++) {
+			var isv = db.newVertex("inputstructure");
+			isv.set("json", JSON);
+			isv.save();
+			var psv = db.newVertex("predictionstructure");
+			psv.set("json", JSON);
+			psv.set("alerts", "Alert 1");
+			psv.save();
+			psv.newEdge("e_endpoint", endpointIds.get(i % ENDPOINTS), true);
+			isv.newEdge("e_predictionstructure", psv, true);
+			inputStructureIds.add(isv.getIdentity());
+			predictionStructureIds.add(psv.getIdentity());
+			if (i % 1000 == 999) {
+				db.commit();
+				db.begin();
+			}
+		}
+		db.commit();
+		setupAccessPath();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDownDatabase() throws IOException {
+		tearDownAccessPath();
+		db.drop();
+		factory.close();
+		Utils.delete(dbPath.toFile());
+	}
+
+	/** Opens graph or traversal on top of {@link #db}. */
+	protected void setupAccessPath() {
+	}
+
+	protected void tearDownAccessPath() {
+	}
+
+	/** @return index of the next preloaded structure, cycling through all of them */
+	protected int nextIndex() {
+		int index = next;
+		next = (next + 1) % structures;
+		return index;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.pawelmaslej.arcadedbperformancetests.jmh;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs all JMH benchmarks of this package. Standard JMH command line options can be passed as arguments,
+ * e.g. "DatabaseBenchmark.lookup -p structures=100000".
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class ArcadeDbBenchmarks {
+
+	public static void main(String [] args) throws RunnerException, CommandLineOptionException {
+		var commandLineOptions = new CommandLineOptions(args);
+		var options = new OptionsBuilder()
+			.parent(commandLineOptions);
+		if (commandLineOptions.getIncludes().isEmpty()) {
+			options.include(ArcadeDbBenchmarks.class.getPackageName() + ".*Benchmark\\.");
+		}
+		new Runner(options.build()).run();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,117 @@
+package com.pawelmaslej.arcadedbperformancetests.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Direction;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Transaction.READ_WRITE_BEHAVIOR;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.arcadedb.gremlin.ArcadeGraph;
+
+/**
+ * Single operations through {@link ArcadeGraph} structure API, the same calls {@link com.pawelmaslej.arcadedbperformancetests.TinkerPopTestCode} makes.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class ArcadeGraphBenchmark extends AbstractArcadeDbBenchmark {
+
+	ArcadeGraph graph;
+	GraphTraversalSource gts;
+
+	@Override
+	protected void setupAccessPath() {
+		graph = ArcadeGraph.open(db);
+		graph.tx().onReadWrite(READ_WRITE_BEHAVIOR.MANUAL); // disables auto-start
+		gts = graph.traversal();
+	}
+
+	@Benchmark
+	public Object insertVertex() {
+		graph.tx().open();
+		try {
+			var v = graph.addVertex("inputstructure");
+			v.property("json", JSON);
+			return v.id();
+		}
+		finally {
+			graph.tx().commit();
+		}
+	}
+
+	@Benchmark
+	public Vertex lookupVertex() {
+		graph.tx().open();
+		try {
+			return graph.vertices(inputStructureIds.get(nextIndex())).next();
+		}
+		finally {
+			graph.tx().rollback();
+		}
+	}
+
+	@Benchmark
+	public Edge createEdge() {
+		int i = nextIndex();
+		graph.tx().open();
+		try {
+			var psv = graph.vertices(predictionStructureIds.get(i)).next();
+			var ev = graph.vertices(endpointIds.get(i % ENDPOINTS)).next();
+			return psv.addEdge("e_endpoint", ev);
+		}
+		finally {
+			graph.tx().commit();
+		}
+	}
+
+	@Benchmark
+	public void iterateOutEdges(Blackhole bh) {
+		graph.tx().open();
+		try {
+			var isv = graph.vertices(inputStructureIds.get(nextIndex())).next();
+			var edges = isv.edges(Direction.OUT, "e_predictionstructure");
+			while (edges.hasNext()) {
+				bh.consume(edges.next().inVertex());
+			}
+		}
+		finally {
+			graph.tx().rollback();
+		}
+	}
+
+	@Benchmark
+	public void iterateInEdges(Blackhole bh) {
+		graph.tx().open();
+		try {
+			var ev = graph.vertices(endpointIds.get(nextIndex() % ENDPOINTS)).next();
+			var edges = ev.edges(Direction.IN, "e_endpoint");
+			while (edges.hasNext()) {
+				bh.consume(edges.next().outVertex());
+			}
+		}
+		finally {
+			graph.tx().rollback();
+		}
+	}
+
+	/** Type scan is not part of structure API, the same traversal as {@link com.pawelmaslej.arcadedbperformancetests.TinkerPopTestCode} is used. */
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void scanType(Blackhole bh) {
+		graph.tx().open();
+		try {
+			var vertices = gts.clone().V().hasLabel("inputstructure");
+			while (vertices.hasNext()) {
+				bh.consume(vertices.next().<String>value("json"));
+			}
+		}
+		finally {
+			graph.tx().rollback();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.pawelmaslej.arcadedbperformancetests.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.arcadedb.database.RID;
+import com.arcadedb.graph.Edge;
+import com.arcadedb.graph.Vertex.DIRECTION;
+
+/**
+ * Single operations through native embedded {@link com.arcadedb.database.Database} API.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class DatabaseBenchmark extends AbstractArcadeDbBenchmark {
+
+	@Benchmark
+	public RID insertVertex() {
+		db.begin();
+		try {
+			var v = db.newVertex("inputstructure");
+			v.set("json", JSON);
+			v.save();
+			return v.getIdentity();
+		}
+		finally {
+			db.commit();
+		}
+	}
+
+	@Benchmark
+	public Object lookupByRID() {
+		return db.lookupByRID(inputStructureIds.get(nextIndex()), true);
+	}
+
+	@Benchmark
+	public Edge createEdge() {
+		int i = nextIndex();
+		db.begin();
+		try {
+			var psv = db.lookupByRID(predictionStructureIds.get(i), true).asVertex();
+			return psv.newEdge("e_endpoint", endpointIds.get(i % ENDPOINTS), true);
+		}
+		finally {
+			db.commit();
+		}
+	}
+
+	@Benchmark
+	public void iterateOutEdges(Blackhole bh) {
+		var isv = db.lookupByRID(inputStructureIds.get(nextIndex()), true).asVertex();
+		for (var e : isv.getEdges(DIRECTION.OUT, "e_predictionstructure")) {
+			bh.consume(e.getInVertex());
+		}
+	}
+
+	@Benchmark
+	public void iterateInEdges(Blackhole bh) {
+		var ev = db.lookupByRID(endpointIds.get(nextIndex() % ENDPOINTS), true).asVertex();
+		for (var e : ev.getEdges(DIRECTION.IN, "e_endpoint")) {
+			bh.consume(e.getOutVertex());
+		}
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void scanType(Blackhole bh) {
+		var iter = db.iterateType("inputstructure", false);
+		while (iter.hasNext()) {
+			bh.consume(iter.next().asVertex().getString("json"));
+		}
+	}
+}
\ No newline at end of file
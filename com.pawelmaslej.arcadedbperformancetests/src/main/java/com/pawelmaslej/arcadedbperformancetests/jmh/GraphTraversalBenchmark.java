@@ -0,0 +1,103 @@
+package com.pawelmaslej.arcadedbperformancetests.jmh;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.Transaction.READ_WRITE_BEHAVIOR;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.arcadedb.gremlin.ArcadeGraph;
+
+/**
+ * Single operations through embedded {@link GraphTraversalSource}, the same traversals {@link com.pawelmaslej.arcadedbperformancetests.TraversalTinkerPopTestCode} submits.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class GraphTraversalBenchmark extends AbstractArcadeDbBenchmark {
+
+	GraphTraversalSource gts;
+
+	@Override
+	protected void setupAccessPath() {
+		var graph = ArcadeGraph.open(db);
+		graph.tx().onReadWrite(READ_WRITE_BEHAVIOR.MANUAL); // disables auto-start
+		gts = graph.traversal();
+	}
+
+	@Benchmark
+	public Object insertVertex() {
+		gts.tx().open();
+		try {
+			return gts.clone().addV("inputstructure").property("json", JSON).id().next();
+		}
+		finally {
+			gts.tx().commit();
+		}
+	}
+
+	@Benchmark
+	public Vertex lookupVertex() {
+		gts.tx().open();
+		try {
+			return gts.clone().V(inputStructureIds.get(nextIndex())).next();
+		}
+		finally {
+			gts.tx().rollback();
+		}
+	}
+
+	@Benchmark
+	public Edge createEdge() {
+		int i = nextIndex();
+		gts.tx().open();
+		try {
+			return gts.clone()
+				.V(predictionStructureIds.get(i))
+				.addE("e_endpoint").to(__.V(endpointIds.get(i % ENDPOINTS)))
+				.next();
+		}
+		finally {
+			gts.tx().commit();
+		}
+	}
+
+	@Benchmark
+	public void iterateOutEdges(Blackhole bh) {
+		gts.tx().open();
+		try {
+			gts.clone().V(inputStructureIds.get(nextIndex())).outE("e_predictionstructure").inV().forEachRemaining(bh::consume);
+		}
+		finally {
+			gts.tx().rollback();
+		}
+	}
+
+	@Benchmark
+	public void iterateInEdges(Blackhole bh) {
+		gts.tx().open();
+		try {
+			gts.clone().V(endpointIds.get(nextIndex() % ENDPOINTS)).inE("e_endpoint").outV().forEachRemaining(bh::consume);
+		}
+		finally {
+			gts.tx().rollback();
+		}
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public void scanType(Blackhole bh) {
+		gts.tx().open();
+		try {
+			gts.clone().V().hasLabel("inputstructure").values("json").forEachRemaining(bh::consume);
+		}
+		finally {
+			gts.tx().rollback();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+import com.pawelmaslej.arcadedbperformancetests.utils.Utils;
+
+/**
+ * How alerts of prediction structure are stored in "alerts" property. Only {@link #SEPARATED} decoding
+ * allocates, the others iterate alerts in place.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public enum AlertsEncoding {
+
+	/** string joined with separator, split with regex into list, original format */
+	SEPARATED,
+	/** native LIST of STRING property */
+	LIST,
+	/** byte[] of alerts, each as unsigned short length followed by UTF-8 bytes */
+	BINARY;
+
+	public Object encode(List<String> alerts) {
+		return switch (this) {
+			case SEPARATED -> Utils.listToString(alerts);
+			case LIST -> alerts;
+			case BINARY -> toBinary(alerts);
+		};
+	}
+
+	/**
+	 * Checks stored alerts are present and not empty.
+	 *
+	 * @return number of alerts
+	 */
+	public int count(Object value) {
+		int count = switch (this) {
+			case SEPARATED -> value instanceof String text && !text.isBlank() ? Utils.listFromString(text).size() : 0;
+			case LIST -> countList(value);
+			case BINARY -> countBinary(value);
+		};
+		if (count == 0) {
+			throw new RuntimeException("Alerts not available");
+		}
+		return count;
+	}
+
+	private static int countList(Object value) {
+		if (!(value instanceof Collection<?> alerts)) {
+			return 0;
+		}
+		for (var alert : alerts) {
+			if (!(alert instanceof CharSequence text) || text.isEmpty()) {
+				return 0;
+			}
+		}
+		return alerts.size();
+	}
+
+	/** Walks length prefixes without decoding strings. Binary read through HTTP JSON protocol arrives as Base64 text. */
+	private static int countBinary(Object value) {
+		var bytes = value instanceof String text ? Base64.getDecoder().decode(text) : (byte[]) value;
+		if (bytes == null) {
+			return 0;
+		}
+		int count = 0;
+		int pos = 0;
+		while (pos + 2 <= bytes.length) {
+			int length = ((bytes[pos] & 0xFF) << 8) | (bytes[pos + 1] & 0xFF);
+			if (length == 0) {
+				return 0;
+			}
+			pos += 2 + length;
+			count++;
+		}
+		return pos == bytes.length ? count : 0;
+	}
+
+	private static byte[] toBinary(List<String> alerts) {
+		var encoded = new byte[alerts.size()][];
+		int size = 0;
+		for (int i=0; i<alerts.size(); i++) {
+			encoded[i] = alerts.get(i).getBytes(StandardCharsets.UTF_8);
+			if (encoded[i].length > 0xFFFF) {
+				throw new IllegalArgumentException("Alert longer than %s bytes".formatted(0xFFFF));
+			}
+			size += 2 + encoded[i].length;
+		}
+		var bytes = new byte[size];
+		int pos = 0;
+		for (var alert : encoded) {
+			bytes[pos++] = (byte) (alert.length >>> 8);
+			bytes[pos++] = (byte) alert.length;
+			System.arraycopy(alert, 0, bytes, pos, alert.length);
+			pos += alert.length;
+		}
+		return bytes;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.util.Set;
+
+/**
+ * Database access path under test, opened once and asked for {@link TestCode} of each run.
+ * Implementations are registered in META-INF/services and found by {@link Backends}.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public interface Backend extends AutoCloseable {
+
+	enum Capability {
+		/** engine runs inside the test JVM */
+		EMBEDDED,
+		/** engine is reached over network */
+		REMOTE,
+		/** {@link Backend#createWorkerTestCode(PerformanceTest)} available, runs with more than one thread */
+		CONCURRENT_WORKERS,
+		/** test code runs inside explicit transactions */
+		TRANSACTIONS,
+		/** {@link TestCode#storageSizeFunction()} is measured */
+		STORAGE_SIZE
+	}
+
+	/** Name used to select backend on command line. */
+	String name();
+
+	Set<Capability> capabilities();
+
+	default boolean supports(Capability capability) {
+		return capabilities().contains(capability);
+	}
+
+	/** Name of embedded backend doing the same operations in process, compared in {@link ProtocolOverhead}, null for none. */
+	default String embeddedCounterpart() {
+		return null;
+	}
+
+	/** Connects to or creates database and its schema. */
+	void open(BackendConfig config) throws Exception;
+
+	/** Test code used by the calling thread. */
+	TestCode createTestCode(PerformanceTest test);
+
+	/** Test code with own database handle for worker thread, throws {@link UnsupportedOperationException} without {@link Capability#CONCURRENT_WORKERS}. */
+	default TestCode createWorkerTestCode(PerformanceTest test) {
+		throw new UnsupportedOperationException("Backend %s has no concurrent workers".formatted(name()));
+	}
+
+	@Override
+	void close() throws Exception;
+}
\ No newline at end of file
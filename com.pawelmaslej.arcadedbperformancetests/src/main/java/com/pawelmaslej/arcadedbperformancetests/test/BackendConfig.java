@@ -0,0 +1,19 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.nio.file.Paths;
+
+import lombok.With;
+
+/**
+ * Connection settings passed to {@link Backend#open(BackendConfig)}, embedded backends use directory only.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+@With
+public record BackendConfig(String host, int port, int gremlinPort, String database, String user, String password, String directory) {
+
+	public static BackendConfig defaults() {
+		return new BackendConfig("localhost", 2480, 8182, "test", "root", "password", Paths.get("").toAbsolutePath().toString() + "/database");
+	}
+}
\ No newline at end of file
@@ -0,0 +1,31 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.util.List;
+import java.util.ServiceLoader;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of {@link Backend} implementations available through {@link ServiceLoader}.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class Backends {
+
+	private Backends() {
+	}
+
+	/** New instance of every registered backend. */
+	public static List<Backend> available() {
+		return ServiceLoader.load(Backend.class).stream().map(ServiceLoader.Provider::get).toList();
+	}
+
+	public static Backend find(String name) {
+		var backends = available();
+		return backends.stream()
+			.filter(b -> b.name().equals(name))
+			.findFirst()
+			.orElseThrow(() -> new IllegalArgumentException("Unknown backend %s, available: %s".formatted(name,
+				backends.stream().map(Backend::name).collect(Collectors.joining(", ")))));
+	}
+}
\ No newline at end of file
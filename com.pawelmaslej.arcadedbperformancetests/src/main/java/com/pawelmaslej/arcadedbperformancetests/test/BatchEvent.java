@@ -0,0 +1,38 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event of a single insert or prediction batch. Disabled unless enabled by recording settings
+ * or {@link PerformanceTest#configureFlightRecording(java.nio.file.Path, boolean)}, large runs produce many of them.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+@Name("arcadedbperformancetests.Batch")
+@Label("Benchmark Batch")
+@Category({"ArcadeDB Performance Tests"})
+@Description("Batch of records sent by a performance test stage")
+@Enabled(false)
+public class BatchEvent extends Event {
+
+	@Label("Backend")
+	String backend;
+
+	@Label("Stage")
+	String stage;
+
+	@Label("Operation")
+	String operation;
+
+	@Label("Batch Index")
+	int batchIndex;
+
+	@Label("Records")
+	int records;
+}
\ No newline at end of file
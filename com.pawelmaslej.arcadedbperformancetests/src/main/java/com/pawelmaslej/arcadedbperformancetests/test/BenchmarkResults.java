@@ -0,0 +1,288 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.HdrHistogram.Histogram;
+
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest.Operation;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest.Stage;
+
+/**
+ * Results of a single {@link PerformanceTest#runTest} call written as JSON and CSV file, one row per measured stage operation.
+ * CSV files of two runs can be compared with {@link #compare(Path, Path, double)}.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class BenchmarkResults {
+
+	static final String[] COLUMNS = {"name", "stage", "operation", "limit", "batchSize", "threads", "iteration", "count", "timeMs", "opsPerSecond",
+		"p50Us", "p90Us", "p99Us", "p999Us", "maxUs", "jvm", "arcadedb", "os", "cpus", "maxHeapMb", "memoryMb"};
+
+	/** Percentiles are -1 when no latency was recorded for the operation, iterations are numbered from 1. */
+	public record Row(String name, Stage stage, Operation operation, int limit, int batchSize, int threads, int iteration, long count, long timeNs,
+		long opsPerSecond, long p50Us, long p90Us, long p99Us, long p999Us, long maxUs) {
+	}
+
+	public record MemoryRow(int iteration, Stage stage, long records, StageMemory.Usage usage) {
+	}
+
+	String name;
+	int limit;
+	int batchSize;
+	int threads;
+	LocalDateTime started = LocalDateTime.now();
+	Map<String, String> environment = environment();
+	List<Row> rows = new ArrayList<>();
+	List<MemoryRow> memoryRows = new ArrayList<>();
+
+	public BenchmarkResults(String name, int limit, int batchSize, int threads) {
+		this.name = name;
+		this.limit = limit;
+		this.batchSize = batchSize;
+		this.threads = threads;
+	}
+
+	public void add(int iteration, Stage stage, Operation operation, long count, long timeNs, Histogram latency) {
+		boolean hasLatency = latency != null && latency.getTotalCount() > 0;
+		rows.add(new Row(name, stage, operation, limit, batchSize, threads, iteration, count, timeNs,
+			timeNs > 0 ? count * 1000000000L / timeNs : 0,
+			hasLatency ? latency.getValueAtPercentile(50) / 1000 : -1,
+			hasLatency ? latency.getValueAtPercentile(90) / 1000 : -1,
+			hasLatency ? latency.getValueAtPercentile(99) / 1000 : -1,
+			hasLatency ? latency.getValueAtPercentile(99.9) / 1000 : -1,
+			hasLatency ? latency.getMaxValue() / 1000 : -1));
+	}
+
+	public List<Row> getRows() {
+		return rows;
+	}
+
+	public void addMemory(int iteration, Stage stage, long records, StageMemory.Usage usage) {
+		memoryRows.add(new MemoryRow(iteration, stage, records, usage));
+	}
+
+	/** Throughput statistics over measurement iterations, keyed by stage and operation. */
+	public Map<String, Statistics> summary() {
+		return rows.stream().collect(Collectors.groupingBy(r -> r.stage() + " " + r.operation(), LinkedHashMap::new,
+			Collectors.collectingAndThen(Collectors.mapping(r -> (double) r.opsPerSecond(), Collectors.toList()), Statistics::of)));
+	}
+
+	public void printSummary() {
+		System.out.println("Summary of %s ops/s".formatted(name));
+		summary().forEach((key, statistics) -> System.out.println("  %s: %s".formatted(key, statistics)));
+	}
+
+	/** Writes "name_timestamp.json" and ".csv" into directory, returns path of CSV file. */
+	public Path write(Path dir) throws IOException {
+		Files.createDirectories(dir);
+		var baseName = baseName();
+		Files.writeString(dir.resolve(baseName + ".json"), toJson());
+		var csv = dir.resolve(baseName + ".csv");
+		Files.writeString(csv, toCsv());
+		System.out.println("Results written to " + csv.toAbsolutePath());
+		return csv;
+	}
+
+	/** Run name usable in file names, with start time. */
+	String baseName() {
+		return baseName(name, started);
+	}
+
+	static String baseName(String name, LocalDateTime started) {
+		return name.replaceAll("[^A-Za-z0-9_-]+", "_") + "_" + started.format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+	}
+
+	String toJson() {
+		var json = new StringBuilder();
+		json.append("{\n");
+		json.append("\t\"name\": %s,\n".formatted(quote(name)));
+		json.append("\t\"started\": %s,\n".formatted(quote(started.toString())));
+		json.append("\t\"limit\": %s,\n\t\"batchSize\": %s,\n\t\"threads\": %s,\n".formatted(limit, batchSize, threads));
+		json.append("\t\"environment\": {");
+		json.append(environment.entrySet().stream()
+			.map(e -> "\n\t\t%s: %s".formatted(quote(e.getKey()), quote(e.getValue())))
+			.collect(Collectors.joining(",")));
+		json.append("\n\t},\n");
+		json.append("\t\"results\": [");
+		json.append(rows.stream()
+			.map(r -> ("\n\t\t{\"stage\": \"%s\", \"operation\": \"%s\", \"iteration\": %s, \"count\": %s, \"timeMs\": %s, \"opsPerSecond\": %s, "
+				+ "\"latencyUs\": {\"p50\": %s, \"p90\": %s, \"p99\": %s, \"p999\": %s, \"max\": %s}}").formatted(
+				r.stage(), r.operation(), r.iteration(), r.count(), r.timeNs() / 1000000, r.opsPerSecond(), r.p50Us(), r.p90Us(), r.p99Us(), r.p999Us(), r.maxUs()))
+			.collect(Collectors.joining(",")));
+		json.append("\n\t],\n");
+		json.append("\t\"memory\": [");
+		json.append(memoryRows.stream()
+			.map(m -> ("\n\t\t{\"stage\": \"%s\", \"iteration\": %s, \"records\": %s, \"allocatedBytes\": %s, \"gcCount\": %s, \"gcTimeMs\": %s, "
+				+ "\"heapUsedBefore\": %s, \"heapUsedAfter\": %s}").formatted(m.stage(), m.iteration(), m.records(), m.usage().allocatedBytes(),
+				m.usage().gcCount(), m.usage().gcTimeMs(), m.usage().heapUsedBefore(), m.usage().heapUsedAfter()))
+			.collect(Collectors.joining(",")));
+		json.append("\n\t],\n");
+		json.append("\t\"summary\": [");
+		json.append(summary().entrySet().stream()
+			.map(e -> String.format(Locale.ROOT, "\n\t\t{\"operation\": %s, \"iterations\": %s, \"meanOpsPerSecond\": %.1f, \"stddev\": %.1f, \"min\": %.1f, \"max\": %.1f, \"ci95\": %.1f}",
+				quote(e.getKey()), e.getValue().n(), e.getValue().mean(), e.getValue().stddev(), e.getValue().min(), e.getValue().max(), e.getValue().ci95()))
+			.collect(Collectors.joining(",")));
+		json.append("\n\t]\n}\n");
+		return json.toString();
+	}
+
+	String toCsv() {
+		var csv = new StringBuilder(String.join(",", COLUMNS)).append('\n');
+		for (var r : rows) {
+			csv.append("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s".formatted(csvQuote(r.name()), r.stage(), r.operation(), r.limit(), r.batchSize(), r.threads(), r.iteration(),
+				r.count(), r.timeNs() / 1000000, r.opsPerSecond(), r.p50Us(), r.p90Us(), r.p99Us(), r.p999Us(), r.maxUs()));
+			for (var value : environment.values()) {
+				csv.append(',').append(csvQuote(value));
+			}
+			csv.append('\n');
+		}
+		return csv.toString();
+	}
+
+	/** JVM, ArcadeDB version found on classpath and hardware of the machine running the test. */
+	static Map<String, String> environment() {
+		Map<String, String> environment = new LinkedHashMap<>();
+		environment.put("jvm", "%s %s".formatted(System.getProperty("java.vm.name"), System.getProperty("java.vm.version")));
+		environment.put("arcadedb", arcadeDbVersion());
+		environment.put("os", "%s %s %s".formatted(System.getProperty("os.name"), System.getProperty("os.version"), System.getProperty("os.arch")));
+		environment.put("cpus", String.valueOf(Runtime.getRuntime().availableProcessors()));
+		environment.put("maxHeapMb", String.valueOf(Runtime.getRuntime().maxMemory() / 1024 / 1024));
+		long memory = ManagementFactory.getOperatingSystemMXBean() instanceof com.sun.management.OperatingSystemMXBean os ? os.getTotalMemorySize() : -1;
+		environment.put("memoryMb", String.valueOf(memory > 0 ? memory / 1024 / 1024 : -1));
+		return environment;
+	}
+
+	/** Looked up reflectively, harness itself does not depend on the engine. */
+	private static String arcadeDbVersion() {
+		try {
+			return String.valueOf(Class.forName("com.arcadedb.Constants").getMethod("getRawVersion").invoke(null));
+		}
+		catch (ReflectiveOperationException | LinkageError e) {
+			return "unknown";
+		}
+	}
+
+	/**
+	 * Compares operations present in both CSV files, operation regresses when throughput drops or p99 latency grows
+	 * by more than thresholdPercent. Prints comparison table.
+	 *
+	 * @return number of regressions
+	 */
+	public static int compare(Path baseline, Path candidate, double thresholdPercent) throws IOException {
+		var baselineRows = readCsv(baseline);
+		var candidateRows = readCsv(candidate);
+		System.out.println("Baseline  %s: %s".formatted(baseline, baselineRows.values().stream().findFirst().map(r -> r.get("arcadedb") + ", " + r.get("jvm")).orElse("empty")));
+		System.out.println("Candidate %s: %s".formatted(candidate, candidateRows.values().stream().findFirst().map(r -> r.get("arcadedb") + ", " + r.get("jvm")).orElse("empty")));
+		int regressions = 0;
+		for (var entry : candidateRows.entrySet()) {
+			var before = baselineRows.get(entry.getKey());
+			if (before == null) {
+				System.out.println("  %s: not in baseline".formatted(entry.getKey()));
+				continue;
+			}
+			var after = entry.getValue();
+			double throughputChange = change(before.get("opsPerSecond"), after.get("opsPerSecond"));
+			double p99Change = change(before.get("p99Us"), after.get("p99Us"));
+			boolean regression = throughputChange < -thresholdPercent || p99Change > thresholdPercent;
+			if (regression) {
+				regressions++;
+			}
+			System.out.println("  %s %s: %s -> %s ops/s (%+.1f%%), p99 %s -> %s us (%+.1f%%)".formatted(
+				regression ? "REGRESSION" : "ok", entry.getKey(),
+				before.get("opsPerSecond"), after.get("opsPerSecond"), throughputChange,
+				before.get("p99Us"), after.get("p99Us"), p99Change));
+		}
+		System.out.println("%s regressions beyond %s%% noise threshold".formatted(regressions, thresholdPercent));
+		return regressions;
+	}
+
+	/** Percent change, 0 when either value is missing. */
+	private static double change(String before, String after) {
+		double b = Double.parseDouble(before);
+		double a = Double.parseDouble(after);
+		return b > 0 && a >= 0 ? (a - b) * 100 / b : 0;
+	}
+
+	/**
+	 * Rows keyed by name, stage and operation, each row as column to value map.
+	 * Throughput and p99 of measurement iterations are averaged.
+	 */
+	static Map<String, Map<String, String>> readCsv(Path file) throws IOException {
+		var lines = Files.readAllLines(file);
+		if (lines.isEmpty()) {
+			throw new IOException("Empty results file " + file);
+		}
+		var header = lines.get(0).split(",");
+		Map<String, List<Map<String, String>>> iterations = new LinkedHashMap<>();
+		for (var line : lines.subList(1, lines.size())) {
+			if (line.isBlank()) {
+				continue;
+			}
+			var values = splitCsv(line);
+			Map<String, String> row = new LinkedHashMap<>();
+			for (int i=0; i<header.length && i<values.size(); i++) {
+				row.put(header[i], values.get(i));
+			}
+			iterations.computeIfAbsent(row.get("name") + " " + row.get("stage") + " " + row.get("operation"), k -> new ArrayList<>()).add(row);
+		}
+		Map<String, Map<String, String>> rows = new LinkedHashMap<>();
+		iterations.forEach((key, keyRows) -> {
+			var row = new LinkedHashMap<>(keyRows.get(0));
+			row.put("opsPerSecond", mean(keyRows, "opsPerSecond"));
+			row.put("p99Us", mean(keyRows, "p99Us"));
+			rows.put(key, row);
+		});
+		return rows;
+	}
+
+	private static String mean(List<Map<String, String>> rows, String column) {
+		return String.format(Locale.ROOT, "%.0f", rows.stream().mapToDouble(r -> Double.parseDouble(r.get(column))).average().orElse(-1));
+	}
+
+	private static List<String> splitCsv(String line) {
+		List<String> values = new ArrayList<>();
+		var value = new StringBuilder();
+		boolean quoted = false;
+		for (int i=0; i<line.length(); i++) {
+			char c = line.charAt(i);
+			if (c == '"') {
+				if (quoted && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					value.append(c);
+					i++;
+				}
+				else {
+					quoted = !quoted;
+				}
+			}
+			else if (c == ',' && !quoted) {
+				values.add(value.toString());
+				value.setLength(0);
+			}
+			else {
+				value.append(c);
+			}
+		}
+		values.add(value.toString());
+		return values;
+	}
+
+	private static String quote(String value) {
+		return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+	}
+
+	private static String csvQuote(String value) {
+		return "\"" + value.replace("\"", "\"\"") + "\"";
+	}
+}
\ No newline at end of file
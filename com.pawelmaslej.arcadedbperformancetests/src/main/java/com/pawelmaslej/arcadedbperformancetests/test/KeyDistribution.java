@@ -0,0 +1,80 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.util.SplittableRandom;
+
+/**
+ * Selection of existing records by {@link MixedWorkload}, as in YCSB. Zipfian generator follows Gray et al.
+ * "Quickly generating billion-record synthetic databases" with constant 0.99, its zeta is extended as records are inserted.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public enum KeyDistribution {
+	/** every record equally likely */
+	UNIFORM,
+	/** few oldest records are hot */
+	ZIPFIAN,
+	/** most recently inserted records are hot */
+	LATEST;
+
+	static final double THETA = 0.99;
+
+	/** Chooser keeps zipfian state, single instance is shared by workload threads. */
+	public Chooser chooser() {
+		return new Chooser(this);
+	}
+
+	public static class Chooser {
+
+		KeyDistribution distribution;
+		long items;
+		double zetaN;
+		double zeta2 = zeta(0, 2, 0);
+		double alpha = 1 / (1 - THETA);
+
+		Chooser(KeyDistribution distribution) {
+			this.distribution = distribution;
+		}
+
+		/** @return index of record from 0 to items - 1 */
+		public int next(SplittableRandom random, int items) {
+			if (items <= 0) {
+				throw new IllegalStateException("No records to choose from");
+			}
+			return switch (distribution) {
+				case UNIFORM -> random.nextInt(items);
+				case ZIPFIAN -> zipfian(random.nextDouble(), items);
+				case LATEST -> items - 1 - zipfian(random.nextDouble(), items);
+			};
+		}
+
+		synchronized int zipfian(double u, int n) {
+			if (n != items) {
+				zetaN = zeta(items, n, zetaN);
+				items = n;
+			}
+			double uz = u * zetaN;
+			if (uz < 1) {
+				return 0;
+			}
+			if (uz < 1 + Math.pow(0.5, THETA)) {
+				return Math.min(1, n - 1);
+			}
+			double eta = (1 - Math.pow(2d / n, 1 - THETA)) / (1 - zeta2 / zetaN);
+			return (int) Math.min(n - 1, (long) (n * Math.pow(eta * u - eta + 1, alpha)));
+		}
+
+		/** Zeta of n items computed from zeta of fromItems items, recomputed when count decreased. */
+		static double zeta(long fromItems, long n, double fromZeta) {
+			if (n < fromItems) {
+				fromItems = 0;
+				fromZeta = 0;
+			}
+			double sum = fromZeta;
+			for (long i=fromItems; i<n; i++) {
+				sum += 1 / Math.pow(i + 1, THETA);
+			}
+			return sum;
+		}
+	}
+}
\ No newline at end of file
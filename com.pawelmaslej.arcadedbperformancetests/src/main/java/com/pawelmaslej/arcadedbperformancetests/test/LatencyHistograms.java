@@ -0,0 +1,59 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest.Operation;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest.Stage;
+
+/**
+ * Latency histogram of every recorded operation, kept separately for each stage and operation.
+ * Recording is wait-free and can be done from multiple threads.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class LatencyHistograms {
+
+	static final int SIGNIFICANT_DIGITS = 3;
+
+	Map<Stage, Map<Operation, Histogram>> histograms = new ConcurrentHashMap<>();
+
+	public void record(Stage stage, Operation operation, long timeNs) {
+		histograms.computeIfAbsent(stage, s -> new ConcurrentHashMap<>())
+			.computeIfAbsent(operation, o -> new ConcurrentHistogram(SIGNIFICANT_DIGITS))
+			.recordValue(timeNs);
+	}
+
+	/** @return histogram or null when nothing was recorded */
+	public Histogram get(Stage stage, Operation operation) {
+		var stageHistograms = histograms.get(stage);
+		return stageHistograms != null ? stageHistograms.get(operation) : null;
+	}
+
+	public void reset() {
+		histograms.clear();
+	}
+
+	public void print(Stage stage, Operation operation) {
+		var h = get(stage, operation);
+		if (h == null || h.getTotalCount() == 0) {
+			return;
+		}
+		System.out.println("  %s latency (%s samples) p50 %s us, p90 %s us, p99 %s us, p99.9 %s us, max %s us".formatted(
+			operation,
+			h.getTotalCount(),
+			toMicros(h.getValueAtPercentile(50)),
+			toMicros(h.getValueAtPercentile(90)),
+			toMicros(h.getValueAtPercentile(99)),
+			toMicros(h.getValueAtPercentile(99.9)),
+			toMicros(h.getMaxValue())));
+	}
+
+	private static long toMicros(long timeNs) {
+		return timeNs / 1000;
+	}
+}
\ No newline at end of file
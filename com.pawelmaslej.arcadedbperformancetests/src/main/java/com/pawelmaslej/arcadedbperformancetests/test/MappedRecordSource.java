@@ -0,0 +1,131 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Memory-mapped test data file with one record per line. Only start offsets of lines are kept on the heap,
+ * 4 bytes per record, payloads are decoded from mapped memory on each {@link #get(int)}.
+ * <p>
+ * File is mapped in segments of at most {@link #MAX_SEGMENT_SIZE} bytes, each segment ending at a line end,
+ * so every record lies within one segment.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class MappedRecordSource implements RecordSource {
+
+	static final int MAX_SEGMENT_SIZE = 1 << 30;
+
+	FileChannel channel;
+	List<ByteBuffer> segments = new ArrayList<>();
+	int[] segmentFirstRecord = new int[0];
+	int[] offsets = new int[1024];
+	int size;
+
+	MappedRecordSource(FileChannel channel) {
+		this.channel = channel;
+	}
+
+	public static MappedRecordSource open(Path file) throws IOException {
+		var channel = FileChannel.open(file, StandardOpenOption.READ);
+		var source = new MappedRecordSource(channel);
+		try {
+			source.index();
+		}
+		catch (IOException | RuntimeException e) {
+			source.close();
+			throw e;
+		}
+		return source;
+	}
+
+	private void index() throws IOException {
+		long fileSize = channel.size();
+		long segmentStart = 0;
+		while (segmentStart < fileSize) {
+			int length = (int) Math.min(MAX_SEGMENT_SIZE, fileSize - segmentStart);
+			var buffer = channel.map(MapMode.READ_ONLY, segmentStart, length);
+			boolean lastSegment = segmentStart + length == fileSize;
+
+			int firstRecord = size;
+			int lastLineStart = 0;
+			addOffset(0);
+			for (int pos=0; pos<length; pos++) {
+				if (buffer.get(pos) == '\n' && pos + 1 < length) {
+					lastLineStart = pos + 1;
+					addOffset(lastLineStart);
+				}
+			}
+
+			int segmentLength = length;
+			if (!lastSegment && buffer.get(length - 1) != '\n') {
+				// last line continues in the next mapping, it will start next segment
+				if (lastLineStart == 0) {
+					throw new IOException("Record at offset %s longer than %s bytes".formatted(segmentStart, MAX_SEGMENT_SIZE));
+				}
+				size--;
+				segmentLength = lastLineStart;
+			}
+			segments.add(buffer.slice(0, segmentLength));
+			segmentFirstRecord = Arrays.copyOf(segmentFirstRecord, segmentFirstRecord.length + 1);
+			segmentFirstRecord[segmentFirstRecord.length - 1] = firstRecord;
+			segmentStart += segmentLength;
+		}
+	}
+
+	private void addOffset(int offset) {
+		if (size == offsets.length) {
+			offsets = Arrays.copyOf(offsets, offsets.length * 2);
+		}
+		offsets[size++] = offset;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Record %s of %s".formatted(index, size));
+		}
+		int segmentIndex = Arrays.binarySearch(segmentFirstRecord, index);
+		if (segmentIndex < 0) {
+			segmentIndex = -segmentIndex - 2;
+		}
+		var segment = segments.get(segmentIndex);
+		boolean lastInSegment = segmentIndex + 1 < segmentFirstRecord.length
+			? index + 1 == segmentFirstRecord[segmentIndex + 1]
+			: index + 1 == size;
+
+		int start = offsets[index];
+		int end = lastInSegment ? segment.limit() : offsets[index + 1];
+		while (end > start && (segment.get(end - 1) == '\n' || segment.get(end - 1) == '\r')) {
+			end--;
+		}
+		var bytes = new byte[end - start];
+		segment.get(start, bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	@Override
+	public void close() {
+		try {
+			channel.close();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
\ No newline at end of file
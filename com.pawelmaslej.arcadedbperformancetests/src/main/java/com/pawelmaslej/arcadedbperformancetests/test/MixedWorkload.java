@@ -0,0 +1,233 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Weighted mix of existing operations executed concurrently by {@link PerformanceTest#getThreads()} threads
+ * for fixed duration or number of operations, like YCSB workloads. Records are chosen with {@link KeyDistribution},
+ * inserted structures become available to following predictions.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class MixedWorkload {
+
+	public enum WorkloadOperation {
+		/** prediction structures of endpoint chosen by key distribution */
+		FIND_BY_ENDPOINT,
+		/** new prediction of input structure chosen by key distribution */
+		PREDICT,
+		/** new input structure */
+		INSERT,
+		/** stream of all input structures */
+		SCAN
+	}
+
+	static Map<WorkloadOperation, Integer> mix = parseMix("FIND_BY_ENDPOINT=50,PREDICT=30,INSERT=15,SCAN=5");
+	static KeyDistribution keyDistribution = KeyDistribution.ZIPFIAN;
+	static int durationSeconds = 60;
+	static long operationCount = 0;
+	static long seed = 1;
+	static int payloadsPoolSize = 1000;
+
+	PerformanceTest test;
+	Map<WorkloadOperation, Histogram> latencies = new EnumMap<>(WorkloadOperation.class);
+
+	public MixedWorkload(PerformanceTest test) {
+		this.test = test;
+	}
+
+	/** Weights of operations as "OPERATION=weight,...", operations not listed are not executed. */
+	public static void configureMix(String mix) {
+		MixedWorkload.mix = parseMix(mix);
+	}
+
+	public static void configureKeyDistribution(KeyDistribution keyDistribution) {
+		MixedWorkload.keyDistribution = keyDistribution;
+	}
+
+	/** Workload stops after durationSeconds or operationCount operations, whichever comes first, 0 is no limit. */
+	public static void configureLimit(int durationSeconds, long operationCount) {
+		if (durationSeconds < 0 || operationCount < 0 || (durationSeconds == 0 && operationCount == 0)) {
+			throw new IllegalArgumentException("Invalid duration %s or operation count %s".formatted(durationSeconds, operationCount));
+		}
+		MixedWorkload.durationSeconds = durationSeconds;
+		MixedWorkload.operationCount = operationCount;
+	}
+
+	static Map<WorkloadOperation, Integer> parseMix(String mix) {
+		Map<WorkloadOperation, Integer> weights = new EnumMap<>(WorkloadOperation.class);
+		for (var entry : mix.split(",")) {
+			var keyValue = entry.trim().split("=");
+			if (keyValue.length != 2 || Integer.parseInt(keyValue[1]) < 0) {
+				throw new IllegalArgumentException("Expected OPERATION=weight, got " + entry);
+			}
+			weights.put(WorkloadOperation.valueOf(keyValue[0].trim()), Integer.parseInt(keyValue[1].trim()));
+		}
+		if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+			throw new IllegalArgumentException("No operation in mix " + mix);
+		}
+		return weights;
+	}
+
+	/**
+	 * Runs workload against data of previous test run, at least endpoints must exist.
+	 *
+	 * @param code test code used to read existing data, and as the only worker with single thread
+	 */
+	public void run(String name, TestCode code, Supplier<TestCode> workerCodeFactory) throws IOException {
+		System.out.println("%s mixed workload %s, %s keys, %s threads".formatted(name, mix, keyDistribution, PerformanceTest.getThreads()));
+		var started = LocalDateTime.now();
+		var endpoints = code.findAllEndpointsFunction().get();
+		if (endpoints.isEmpty()) {
+			throw new IllegalStateException("No endpoints, run CREATE_ENDPOINT stage first");
+		}
+		List<String> keys = Collections.synchronizedList(new ArrayList<>(code.queryAndIterateJsonAllInputStructuresFunction().get().stream().map(StructureData::id).toList()));
+		if (keys.isEmpty() && mix.getOrDefault(WorkloadOperation.PREDICT, 0) > 0 && mix.getOrDefault(WorkloadOperation.INSERT, 0) == 0) {
+			throw new IllegalStateException("No input structures to predict, run INSERT stage first");
+		}
+		var payloads = payloads();
+		latencies.clear();
+		mix.keySet().forEach(operation -> latencies.put(operation, new ConcurrentHistogram(LatencyHistograms.SIGNIFICANT_DIGITS)));
+
+		boolean ownWorkers = PerformanceTest.getThreads() > 1;
+		List<TestCode> workers = new ArrayList<>();
+		try {
+			for (int i=0; i<PerformanceTest.getThreads(); i++) {
+				workers.add(ownWorkers ? workerCodeFactory.get() : code);
+			}
+			long time = runWorkers(workers, endpoints, keys, payloads);
+			report(name, started, time);
+		}
+		finally {
+			if (ownWorkers) {
+				workers.forEach(TestCode::close);
+			}
+		}
+	}
+
+	private List<Object> payloads() throws IOException {
+		List<Object> payloads = new ArrayList<>();
+		if (mix.getOrDefault(WorkloadOperation.INSERT, 0) > 0) {
+			try (var records = test.readRecords()) {
+				for (int i=0; i<Math.min(records.size(), payloadsPoolSize); i++) {
+					payloads.add(PerformanceTest.getPayloadEncoding().encode(records.get(i)));
+				}
+			}
+		}
+		return payloads;
+	}
+
+	/** @return wall clock time of the workload in ns */
+	private long runWorkers(List<TestCode> workers, List<EndpointData> endpoints, List<String> keys, List<Object> payloads) {
+		var endpointChooser = keyDistribution.chooser();
+		var keyChooser = keyDistribution.chooser();
+		List<WorkloadOperation> operations = new ArrayList<>(mix.keySet());
+		int[] cumulativeWeights = new int[operations.size()];
+		int totalWeight = 0;
+		for (int i=0; i<operations.size(); i++) {
+			totalWeight += mix.get(operations.get(i));
+			cumulativeWeights[i] = totalWeight;
+		}
+		int weights = totalWeight;
+		var issued = new AtomicLong();
+		var executor = Executors.newFixedThreadPool(workers.size());
+		try {
+			long start = System.nanoTime();
+			long deadline = durationSeconds > 0 ? start + durationSeconds * 1000000000L : Long.MAX_VALUE;
+			List<Future<?>> futures = new ArrayList<>(workers.size());
+			for (int w=0; w<workers.size(); w++) {
+				var worker = workers.get(w);
+				var random = new SplittableRandom(seed + w);
+				futures.add(executor.submit(() -> {
+					var find = worker.findAllPredictionStructuresByEndpointIdFunction();
+					var predict = worker.predictFunction();
+					var insert = worker.insertFunction();
+					var scan = worker.streamAllInputStructuresFunction();
+					while (System.nanoTime() < deadline && (operationCount == 0 || issued.getAndIncrement() < operationCount)) {
+						WorkloadOperation operation;
+						do {
+							int r = random.nextInt(weights);
+							int o = 0;
+							while (r >= cumulativeWeights[o]) {
+								o++;
+							}
+							operation = operations.get(o);
+						}
+						// nothing to predict until first insert completes, run checks INSERT is in the mix
+						while (operation == WorkloadOperation.PREDICT && keys.isEmpty());
+						long operationStart = System.nanoTime();
+						switch (operation) {
+							case FIND_BY_ENDPOINT -> find.apply(endpoints.get(endpointChooser.next(random, endpoints.size())).getId());
+							case PREDICT -> {
+								var input = new PredictionStructureInputData(
+									endpoints.get(random.nextInt(endpoints.size())).getId(),
+									test.alerts.get(random.nextInt(test.alerts.size())));
+								input.setInputStructureId(keys.get(keyChooser.next(random, keys.size())));
+								predict.apply(List.of(input));
+							}
+							case INSERT -> keys.addAll(insert.apply(List.of(payloads.get(random.nextInt(payloads.size())))));
+							case SCAN -> scan.get();
+						}
+						latencies.get(operation).recordValue(System.nanoTime() - operationStart);
+					}
+				}));
+			}
+			for (var future : futures) {
+				future.get();
+			}
+			return System.nanoTime() - start;
+		}
+		catch (ExecutionException e) {
+			throw e.getCause() instanceof RuntimeException re ? re : new RuntimeException(e.getCause());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void report(String name, LocalDateTime started, long timeNs) throws IOException {
+		long total = latencies.values().stream().mapToLong(Histogram::getTotalCount).sum();
+		System.out.println("Mixed workload: %s operations in %s ms, %s ops/s".formatted(total, timeNs / 1000000, total * 1000000000L / Math.max(timeNs, 1)));
+		var csv = new StringBuilder("operation,count,share,opsPerSecond,p50Us,p90Us,p99Us,p999Us,maxUs\n");
+		for (var entry : latencies.entrySet()) {
+			var h = entry.getValue();
+			long count = h.getTotalCount();
+			double share = total > 0 ? count * 100d / total : 0;
+			long opsPerSecond = count * 1000000000L / Math.max(timeNs, 1);
+			System.out.println("  %s: %s operations (%.1f%%), %s ops/s, p50 %s us, p90 %s us, p99 %s us, p99.9 %s us, max %s us".formatted(
+				entry.getKey(), count, share, opsPerSecond, h.getValueAtPercentile(50) / 1000, h.getValueAtPercentile(90) / 1000,
+				h.getValueAtPercentile(99) / 1000, h.getValueAtPercentile(99.9) / 1000, h.getMaxValue() / 1000));
+			csv.append(String.format(Locale.ROOT, "%s,%s,%.1f,%s,%s,%s,%s,%s,%s\n", entry.getKey(), count, share, opsPerSecond, h.getValueAtPercentile(50) / 1000,
+				h.getValueAtPercentile(90) / 1000, h.getValueAtPercentile(99) / 1000, h.getValueAtPercentile(99.9) / 1000, h.getMaxValue() / 1000));
+		}
+		var dir = PerformanceTest.getResultsDirectory();
+		if (dir != null) {
+			Files.createDirectories(dir);
+			var file = dir.resolve(BenchmarkResults.baseName(name + " workload", started) + ".csv");
+			Files.writeString(file, csv);
+			System.out.println("Workload results written to " + file.toAbsolutePath());
+		}
+	}
+}
\ No newline at end of file
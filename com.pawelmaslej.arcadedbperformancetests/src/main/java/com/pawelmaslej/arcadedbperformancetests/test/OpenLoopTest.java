@@ -0,0 +1,232 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongConsumer;
+import java.util.function.Supplier;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Open-loop load: operations are scheduled at constant arrival rate, independently of responses, and response time
+ * is measured from the intended send time, so a stalled server shows up in latency instead of silently lowering the rate
+ * (coordinated omission). Service time, measured from the actual send, is reported next to it.
+ * Rate is increased until the backend cannot keep up, the last rate that kept up is reported as sustainable.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class OpenLoopTest {
+
+	public enum OpenLoopOperation {
+		/** single input structure per request */
+		INSERT,
+		/** prediction structures of endpoint, endpoints taken round robin */
+		FIND_BY_ENDPOINT
+	}
+
+	public record RateResult(double targetRate, long scheduled, long completed, long missed, double achievedRate,
+		Histogram response, Histogram service, boolean saturated) {
+	}
+
+	static int connections = 8;
+	static int durationSeconds = 30;
+	static double rateFactor = 1.5;
+	static double maxRate = 100000;
+	static double keptUpRatio = 0.9;
+	static long latencyLimitMs = 1000;
+	static int payloadsPoolSize = 1000;
+
+	PerformanceTest test;
+
+	public OpenLoopTest(PerformanceTest test) {
+		this.test = test;
+	}
+
+	/** Number of test code instances sending operations, limits concurrent requests. */
+	public static void configureConnections(int connections) {
+		if (connections < 1) {
+			throw new IllegalArgumentException("Connections must be positive: " + connections);
+		}
+		OpenLoopTest.connections = connections;
+	}
+
+	/**
+	 * Each rate runs for durationSeconds, next rate is rateFactor times higher, up to maxRate ops/s.
+	 * Rate is saturated when achieved throughput is below 90% of target, p99 response time exceeds latencyLimitMs
+	 * or scheduled operations could not be sent within twice the duration.
+	 */
+	public static void configureSweep(int durationSeconds, double rateFactor, double maxRate, long latencyLimitMs) {
+		if (durationSeconds < 1 || rateFactor <= 1 || maxRate <= 0 || latencyLimitMs < 1) {
+			throw new IllegalArgumentException("Invalid sweep duration %s, factor %s, max rate %s or latency limit %s".formatted(
+				durationSeconds, rateFactor, maxRate, latencyLimitMs));
+		}
+		OpenLoopTest.durationSeconds = durationSeconds;
+		OpenLoopTest.rateFactor = rateFactor;
+		OpenLoopTest.maxRate = maxRate;
+		OpenLoopTest.latencyLimitMs = latencyLimitMs;
+	}
+
+	/**
+	 * Sweeps rate from startRate until saturation.
+	 *
+	 * @param workerCodeFactory creates test code with own connection for each of {@link #configureConnections(int)}
+	 * @return sustainable rate in ops/s, 0 when already start rate saturated the backend
+	 */
+	public double run(String name, OpenLoopOperation operation, double startRate, Supplier<TestCode> workerCodeFactory) throws IOException {
+		System.out.println("%s open loop %s, %s connections, %s s per rate".formatted(name, operation, connections, durationSeconds));
+		var started = LocalDateTime.now();
+		List<TestCode> workers = new ArrayList<>(connections);
+		List<RateResult> results = new ArrayList<>();
+		double sustainable = 0;
+		try {
+			for (int i=0; i<connections; i++) {
+				workers.add(workerCodeFactory.get());
+			}
+			var operations = operations(operation, workers);
+			for (double rate=startRate; rate<=maxRate; rate*=rateFactor) {
+				var result = runRate(rate, operations);
+				results.add(result);
+				print(result);
+				if (result.saturated()) {
+					break;
+				}
+				sustainable = rate;
+			}
+		}
+		finally {
+			workers.forEach(TestCode::close);
+		}
+		System.out.println(sustainable > 0
+			? "Sustainable rate %.0f ops/s".formatted(sustainable)
+			: "Backend saturated at start rate %.0f ops/s".formatted(startRate));
+		writeResults(BenchmarkResults.baseName(name + " open loop " + operation, started), operation, results);
+		return sustainable;
+	}
+
+	/** Operation of each worker taking sequence number of the operation. */
+	private List<LongConsumer> operations(OpenLoopOperation operation, List<TestCode> workers) throws IOException {
+		List<LongConsumer> operations = new ArrayList<>(workers.size());
+		switch (operation) {
+			case INSERT -> {
+				List<Object> payloads = new ArrayList<>();
+				try (var records = test.readRecords()) {
+					for (int i=0; i<Math.min(records.size(), payloadsPoolSize); i++) {
+						payloads.add(PerformanceTest.getPayloadEncoding().encode(records.get(i)));
+					}
+				}
+				for (var worker : workers) {
+					var insert = worker.insertFunction();
+					operations.add(i -> insert.apply(List.of(payloads.get((int) (i % payloads.size())))));
+				}
+			}
+			case FIND_BY_ENDPOINT -> {
+				var endpoints = workers.get(0).findAllEndpointsFunction().get();
+				if (endpoints.isEmpty()) {
+					throw new IllegalStateException("No endpoints, run CREATE_ENDPOINT stage first");
+				}
+				for (var worker : workers) {
+					var find = worker.findAllPredictionStructuresByEndpointIdFunction();
+					operations.add(i -> find.apply(endpoints.get((int) (i % endpoints.size())).getId()));
+				}
+			}
+		}
+		return operations;
+	}
+
+	private RateResult runRate(double rate, List<LongConsumer> operations) {
+		var response = new ConcurrentHistogram(LatencyHistograms.SIGNIFICANT_DIGITS);
+		var service = new ConcurrentHistogram(LatencyHistograms.SIGNIFICANT_DIGITS);
+		long scheduled = (long) (rate * durationSeconds);
+		double intervalNs = 1000000000d / rate;
+		var next = new AtomicLong();
+		var completed = new AtomicLong();
+		var missed = new AtomicLong();
+		var lastEnd = new AtomicLong();
+		var executor = Executors.newFixedThreadPool(operations.size());
+		try {
+			long start = System.nanoTime();
+			long deadline = start + 2L * durationSeconds * 1000000000L;
+			List<Future<?>> futures = new ArrayList<>(operations.size());
+			for (var operation : operations) {
+				futures.add(executor.submit(() -> {
+					for (long i=next.getAndIncrement(); i<scheduled; i=next.getAndIncrement()) {
+						long intended = start + (long) (i * intervalNs);
+						long now = System.nanoTime();
+						while (now < intended) {
+							LockSupport.parkNanos(intended - now);
+							now = System.nanoTime();
+						}
+						if (now > deadline) {
+							// never sent, waiting time so far is the lower bound of its response time
+							response.recordValue(now - intended);
+							missed.incrementAndGet();
+							continue;
+						}
+						operation.accept(i);
+						long end = System.nanoTime();
+						response.recordValue(end - intended);
+						service.recordValue(end - now);
+						completed.incrementAndGet();
+						lastEnd.accumulateAndGet(end, Math::max);
+					}
+				}));
+			}
+			for (var future : futures) {
+				future.get();
+			}
+			double achievedRate = lastEnd.get() > start ? completed.get() * 1000000000d / (lastEnd.get() - start) : 0;
+			boolean saturated = achievedRate < rate * keptUpRatio
+				|| missed.get() > 0
+				|| response.getValueAtPercentile(99) > latencyLimitMs * 1000000;
+			return new RateResult(rate, scheduled, completed.get(), missed.get(), achievedRate, response, service, saturated);
+		}
+		catch (ExecutionException e) {
+			throw e.getCause() instanceof RuntimeException re ? re : new RuntimeException(e.getCause());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void print(RateResult r) {
+		System.out.println("  target %.0f ops/s: achieved %.0f ops/s, %s of %s completed%s, response p50 %s us, p99 %s us, p99.9 %s us, max %s us, service p50 %s us, p99 %s us%s".formatted(
+			r.targetRate(), r.achievedRate(), r.completed(), r.scheduled(), r.missed() > 0 ? " (%s not sent)".formatted(r.missed()) : "",
+			r.response().getValueAtPercentile(50) / 1000, r.response().getValueAtPercentile(99) / 1000,
+			r.response().getValueAtPercentile(99.9) / 1000, r.response().getMaxValue() / 1000,
+			r.service().getValueAtPercentile(50) / 1000, r.service().getValueAtPercentile(99) / 1000,
+			r.saturated() ? ", SATURATED" : ""));
+	}
+
+	private static void writeResults(String baseName, OpenLoopOperation operation, List<RateResult> results) throws IOException {
+		var dir = PerformanceTest.getResultsDirectory();
+		if (dir == null) {
+			return;
+		}
+		var csv = new StringBuilder("operation,targetRate,scheduled,completed,missed,achievedRate,responseP50Us,responseP99Us,responseP999Us,responseMaxUs,serviceP50Us,serviceP99Us,saturated\n");
+		for (var r : results) {
+			csv.append(String.format(Locale.ROOT, "%s,%.0f,%s,%s,%s,%.0f,%s,%s,%s,%s,%s,%s,%s\n", operation, r.targetRate(), r.scheduled(), r.completed(), r.missed(), r.achievedRate(),
+				r.response().getValueAtPercentile(50) / 1000, r.response().getValueAtPercentile(99) / 1000,
+				r.response().getValueAtPercentile(99.9) / 1000, r.response().getMaxValue() / 1000,
+				r.service().getValueAtPercentile(50) / 1000, r.service().getValueAtPercentile(99) / 1000, r.saturated()));
+		}
+		Files.createDirectories(dir);
+		var file = dir.resolve(baseName + ".csv");
+		Files.writeString(file, csv);
+		System.out.println("Open loop results written to " + file.toAbsolutePath());
+	}
+}
\ No newline at end of file
@@ -0,0 +1,191 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.pawelmaslej.arcadedbperformancetests.test.BenchmarkResults.Row;
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest.Stage;
+
+/**
+ * Runs {@link PerformanceTest} for each combination of data size, batch size, transaction size and threads
+ * and collects throughput and latency of every stage operation into one table, one row per point.
+ * Each point starts with DELETE stage, so it runs on data loaded by itself.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class ParameterSweep {
+
+	public enum Mode {
+		/** every combination of values */
+		PRODUCT,
+		/** first value of each parameter is baseline, one parameter varies at a time */
+		ONE_AT_A_TIME
+	}
+
+	public record Point(int limit, int batchSize, int predictionsPerTransaction, int threads) {
+
+		@Override
+		public String toString() {
+			return "limit=%s batchSize=%s tx=%s threads=%s".formatted(limit, batchSize, predictionsPerTransaction, threads);
+		}
+	}
+
+	/** Means over measurement iterations, latency percentiles are -1 when the operation records no latency. */
+	public record SweepRow(String backend, Point point, Stage stage, PerformanceTest.Operation operation, double opsPerSecond,
+		double ci95, double p50Us, double p99Us) {
+	}
+
+	static final String HEADER = "backend,limit,batchSize,predictionsPerTransaction,threads,stage,operation,opsPerSecond,ci95,p50Us,p99Us";
+
+	List<Integer> limits;
+	List<Integer> batchSizes;
+	List<Integer> transactionSizes;
+	List<Integer> threads;
+	Mode mode;
+	List<SweepRow> rows = new ArrayList<>();
+	List<String> failedPoints = new ArrayList<>();
+
+	public ParameterSweep(Mode mode, List<Integer> limits, List<Integer> batchSizes, List<Integer> transactionSizes, List<Integer> threads) {
+		if (limits.isEmpty() || batchSizes.isEmpty() || transactionSizes.isEmpty() || threads.isEmpty()) {
+			throw new IllegalArgumentException("Every swept parameter needs at least one value");
+		}
+		this.mode = mode;
+		this.limits = limits;
+		this.batchSizes = batchSizes;
+		this.transactionSizes = transactionSizes;
+		this.threads = threads;
+	}
+
+	public List<Point> points() {
+		Set<Point> points = new LinkedHashSet<>();
+		if (mode == Mode.PRODUCT) {
+			for (int limit : limits) {
+				for (int batchSize : batchSizes) {
+					for (int transactionSize : transactionSizes) {
+						for (int threadCount : threads) {
+							points.add(new Point(limit, batchSize, transactionSize, threadCount));
+						}
+					}
+				}
+			}
+		}
+		else {
+			var baseline = new Point(limits.get(0), batchSizes.get(0), transactionSizes.get(0), threads.get(0));
+			points.add(baseline);
+			limits.forEach(v -> points.add(new Point(v, baseline.batchSize(), baseline.predictionsPerTransaction(), baseline.threads())));
+			batchSizes.forEach(v -> points.add(new Point(baseline.limit(), v, baseline.predictionsPerTransaction(), baseline.threads())));
+			transactionSizes.forEach(v -> points.add(new Point(baseline.limit(), baseline.batchSize(), v, baseline.threads())));
+			threads.forEach(v -> points.add(new Point(baseline.limit(), baseline.batchSize(), baseline.predictionsPerTransaction(), v)));
+		}
+		return new ArrayList<>(points);
+	}
+
+	/**
+	 * Runs all points against opened backend. Points with more threads than the backend supports are skipped,
+	 * failed points are logged and reported in {@link #getFailedPoints()}.
+	 * Stages, batch size, transaction size and threads configured before are restored afterwards.
+	 */
+	public void run(Backend backend) {
+		var previousStages = Set.copyOf(PerformanceTest.getStages());
+		int previousBatchSize = PerformanceTest.getBatchSize();
+		int previousTransactionSize = PerformanceTest.getPredictionsPerTransaction();
+		int previousThreads = PerformanceTest.getThreads();
+		try {
+			PerformanceTest.configureStages(stagesWithDataReset(previousStages));
+			for (var point : points()) {
+				if (point.threads() > 1 && !backend.supports(Backend.Capability.CONCURRENT_WORKERS)) {
+					System.out.println("Skipping %s %s, no concurrent workers".formatted(backend.name(), point));
+					continue;
+				}
+				PerformanceTest.configureBatchSize(point.batchSize());
+				PerformanceTest.configurePredictionsPerTransaction(point.predictionsPerTransaction(), PerformanceTest.getTransactionRetries());
+				PerformanceTest.configureThreads(point.threads());
+				var test = new PerformanceTest();
+				try {
+					test.runTest("%s %s".formatted(backend.name(), point), point.limit(), backend);
+					addRows(backend.name(), point, test.getResults().getRows());
+				}
+				catch (Exception e) {
+					System.out.println("Point %s %s failed: %s".formatted(backend.name(), point, e.getMessage()));
+					failedPoints.add("%s %s".formatted(backend.name(), point));
+				}
+			}
+		}
+		finally {
+			PerformanceTest.configureStages(previousStages.toArray(Stage[]::new));
+			PerformanceTest.configureBatchSize(previousBatchSize);
+			PerformanceTest.configurePredictionsPerTransaction(previousTransactionSize, PerformanceTest.getTransactionRetries());
+			PerformanceTest.configureThreads(previousThreads);
+		}
+	}
+
+	/** Every point loads its own data, stages without DELETE get it added. */
+	private static Stage[] stagesWithDataReset(Set<Stage> stages) {
+		if (stages.contains(Stage.ALL) || stages.contains(Stage.DELETE)) {
+			return stages.toArray(Stage[]::new);
+		}
+		if (!stages.contains(Stage.INSERT)) {
+			throw new IllegalStateException("Sweep points load own data, stages %s must include INSERT".formatted(stages));
+		}
+		var withDelete = new LinkedHashSet<>(stages);
+		withDelete.add(Stage.DELETE);
+		return withDelete.toArray(Stage[]::new);
+	}
+
+	private void addRows(String backend, Point point, List<Row> results) {
+		var byOperation = results.stream().collect(Collectors.groupingBy(r -> List.of(r.stage(), r.operation()), LinkedHashMap::new, Collectors.toList()));
+		byOperation.values().forEach(operationRows -> {
+			var first = operationRows.get(0);
+			var throughput = Statistics.of(operationRows.stream().map(r -> (double) r.opsPerSecond()).toList());
+			rows.add(new SweepRow(backend, point, first.stage(), first.operation(), throughput.mean(), throughput.ci95(),
+				operationRows.stream().mapToLong(Row::p50Us).average().orElse(-1),
+				operationRows.stream().mapToLong(Row::p99Us).average().orElse(-1)));
+		});
+	}
+
+	public List<SweepRow> getRows() {
+		return rows;
+	}
+
+	public List<String> getFailedPoints() {
+		return failedPoints;
+	}
+
+	/** Prints the table grouped by stage operation, so throughput of consecutive points can be read as a curve. */
+	public void print() {
+		System.out.println("Sweep %s".formatted(mode));
+		rows.stream()
+			.collect(Collectors.groupingBy(r -> r.backend() + " " + r.stage() + " " + r.operation(), LinkedHashMap::new, Collectors.toList()))
+			.forEach((key, operationRows) -> {
+				System.out.println("  " + key);
+				operationRows.forEach(r -> System.out.println("    %s: %.0f +/- %.0f ops/s, p50 %.0f us, p99 %.0f us".formatted(
+					r.point(), r.opsPerSecond(), r.ci95(), r.p50Us(), r.p99Us())));
+			});
+		if (!failedPoints.isEmpty()) {
+			System.out.println("Failed points: " + failedPoints);
+		}
+	}
+
+	/** Writes "sweep_timestamp.csv" into directory. */
+	public Path write(Path dir) throws IOException {
+		Files.createDirectories(dir);
+		var csv = dir.resolve(BenchmarkResults.baseName("sweep", LocalDateTime.now()) + ".csv");
+		var lines = new ArrayList<String>();
+		lines.add(HEADER);
+		rows.forEach(r -> lines.add(String.format(Locale.ROOT, "%s,%s,%s,%s,%s,%s,%s,%.1f,%.1f,%.1f,%.1f",r.backend(), r.point().limit(), r.point().batchSize(),
+			r.point().predictionsPerTransaction(), r.point().threads(), r.stage(), r.operation(), r.opsPerSecond(), r.ci95(), r.p50Us(), r.p99Us())));
+		Files.write(csv, lines);
+		System.out.println("Sweep results written to " + csv.toAbsolutePath());
+		return csv;
+	}
+}
\ No newline at end of file
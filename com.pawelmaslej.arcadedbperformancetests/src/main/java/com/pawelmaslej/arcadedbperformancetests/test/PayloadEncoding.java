@@ -0,0 +1,103 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.pawelmaslej.arcadedbperformancetests.utils.Utils;
+
+/**
+ * How structure json is stored in "json" property. Binary encodings are stored as byte[] (BINARY type),
+ * prediction structures copy stored value without decoding it.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public enum PayloadEncoding {
+
+	/** Base64 of UTF-8 bytes as string, original format */
+	BASE64,
+	/** json as string */
+	UTF8,
+	/** UTF-8 bytes */
+	BINARY,
+	/** UTF-8 bytes compressed with deflate at fastest level, prefixed with uncompressed length */
+	DEFLATE;
+
+	private static final ThreadLocal<Deflater> deflater = ThreadLocal.withInitial(() -> new Deflater(Deflater.BEST_SPEED));
+	private static final ThreadLocal<Inflater> inflater = ThreadLocal.withInitial(Inflater::new);
+
+	public Object encode(String json) {
+		return switch (this) {
+			case BASE64 -> Utils.toBase64(json);
+			case UTF8 -> json;
+			case BINARY -> json.getBytes(StandardCharsets.UTF_8);
+			case DEFLATE -> deflate(json.getBytes(StandardCharsets.UTF_8));
+		};
+	}
+
+	public String decode(Object value) {
+		if (value == null) {
+			return null;
+		}
+		return switch (this) {
+			case BASE64 -> Utils.fromBase64((String) value);
+			case UTF8 -> (String) value;
+			case BINARY -> new String(bytes(value), StandardCharsets.UTF_8);
+			case DEFLATE -> new String(inflate(bytes(value)), StandardCharsets.UTF_8);
+		};
+	}
+
+	/** Binary property read through HTTP JSON protocol arrives as Base64 text. */
+	private static byte[] bytes(Object value) {
+		if (value instanceof byte[] bytes) {
+			return bytes;
+		}
+		if (value instanceof String text) {
+			return Base64.getDecoder().decode(text);
+		}
+		throw new IllegalArgumentException("Unexpected binary payload type " + value.getClass().getName());
+	}
+
+	private static byte[] deflate(byte[] data) {
+		var d = deflater.get();
+		d.reset();
+		d.setInput(data);
+		d.finish();
+		var output = new byte[Integer.BYTES + data.length + 64];
+		ByteBuffer.wrap(output).putInt(data.length);
+		int length = Integer.BYTES;
+		while (!d.finished()) {
+			if (length == output.length) {
+				output = Arrays.copyOf(output, output.length * 2);
+			}
+			length += d.deflate(output, length, output.length - length);
+		}
+		return Arrays.copyOf(output, length);
+	}
+
+	private static byte[] inflate(byte[] data) {
+		var i = inflater.get();
+		i.reset();
+		var output = new byte[ByteBuffer.wrap(data).getInt()];
+		i.setInput(data, Integer.BYTES, data.length - Integer.BYTES);
+		try {
+			int length = 0;
+			while (length < output.length && !i.finished()) {
+				int inflated = i.inflate(output, length, output.length - length);
+				if (inflated == 0 && (i.needsInput() || i.needsDictionary())) {
+					throw new DataFormatException("Truncated payload");
+				}
+				length += inflated;
+			}
+		}
+		catch (DataFormatException e) {
+			throw new IllegalArgumentException("Invalid deflate payload", e);
+		}
+		return output;
+	}
+}
\ No newline at end of file
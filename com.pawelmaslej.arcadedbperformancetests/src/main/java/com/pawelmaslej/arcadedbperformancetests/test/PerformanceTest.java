@@ -1,22 +1,34 @@
 package com.pawelmaslej.arcadedbperformancetests.test;
 
-import java.io.BufferedReader;
+import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InputStream;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
 
 import com.google.common.collect.Lists;
-import com.pawelmaslej.arcadedbperformancetests.utils.Utils;
 
 /**
  * @author Pawel Maslej
@@ -25,11 +37,38 @@ import com.pawelmaslej.arcadedbperformancetests.utils.Utils;
 public class PerformanceTest {
 
 	static String testDataFilename = "/data_10000";
+	static SyntheticRecordSource syntheticRecords = null;
 	static int batchSize = 10000;
+	static int threads = 1;
+	static int predictionsPerTransaction = 1;
+	static int transactionRetries = 3;
+	static DeleteStrategy deleteStrategy = DeleteStrategy.BATCHED_COMMIT;
+	static int deleteBatchSize = 10000;
+	static PayloadEncoding payloadEncoding = PayloadEncoding.BASE64;
+	static AlertsEncoding alertsEncoding = AlertsEncoding.SEPARATED;
 	static URL sdfUrl = null;
 	static Set<Stage> stages = new HashSet<PerformanceTest.Stage>();
+	static Path resultsDirectory = Paths.get("results");
+	static int warmupIterations = 0;
+	static int measurementIterations = 1;
+	static Path flightRecordingDirectory = null;
+	static boolean flightRecordingBatchEvents = false;
+	static int timelineIntervalSeconds = 0;
 
 	AtomicLong operationsTime = new AtomicLong();
+	AtomicLong retriedTransactions = new AtomicLong();
+	AtomicLong roundTrips = new AtomicLong();
+	AtomicLong alertsDecodingTime = new AtomicLong();
+	LatencyHistograms latencies = new LatencyHistograms();
+	BenchmarkResults results;
+	volatile Stage currentStage = Stage.ALL;
+	int iteration;
+	boolean warmup;
+	String name;
+	StageEvent stageEvent;
+	ThroughputTimeline timeline;
+	StageMemory stageMemory;
+	int stageRecords;
 
 	List<String> endpoints = Arrays.asList("Carcinogenicity", "Chromosome Damage", "Hepatoxicity", "Mutagenicity", "Skin Iritation", "Skin Sensitisation", "Teratogenicity");
 	List<List<String>> alerts = Arrays.asList(Arrays.asList("Alert 1"), Arrays.asList("Alert 1", "Alert 2"), Arrays.asList("Alert 2", "Alert 3"), Arrays.asList("Alert 4"));
@@ -44,10 +83,70 @@ public class PerformanceTest {
 		ALL
 	}
 
+	/** How DELETE stage removes data, each backend implements those its API allows. */
+	public enum DeleteStrategy {
+		/** TRUNCATE TYPE of all edge and vertex types */
+		TRUNCATE_TYPE,
+		/** buckets of each type emptied in parallel, each thread committing batches */
+		BUCKET_PARALLEL,
+		/** records deleted in transactions of {@link PerformanceTest#getDeleteBatchSize()} */
+		BATCHED_COMMIT,
+		/** original implementation of the backend, vertex per transaction or whole type at once */
+		UNBATCHED
+	}
+
+	/** Single measured operation, latency of each is recorded into histogram of the current stage. */
+	public enum Operation {
+		DELETE_BATCH,
+		CREATE_ENDPOINT,
+		INSERT_BATCH,
+		INSERT_RECORD,
+		PREDICTION_BATCH,
+		PREDICTION,
+		PREDICTION_TRANSACTION,
+		SCAN_INPUT_STRUCTURES,
+		SCAN_PREDICTION_STRUCTURES,
+		FIND_ENDPOINTS,
+		FIND_PREDICTION_STRUCTURES_BY_ENDPOINT
+	}
+
 	static {
 		stages.add(Stage.ALL);
 	}
 
+	/** Test data as classpath resource or file path, gzip compressed when name ends with ".gz". */
+	public static void configureTestDataFile(String testDataFilename) {
+		PerformanceTest.testDataFilename = testDataFilename;
+		PerformanceTest.syntheticRecords = null;
+	}
+
+	/**
+	 * Generates count records into "testdata" directory, unless generated with same parameters before,
+	 * and uses them as test data file.
+	 */
+	public static void configureGeneratedTestData(long count, SizeDistribution sizes, long seed) throws IOException {
+		var file = new SyntheticRecords(seed, sizes).write(Paths.get("testdata"), count, false, Runtime.getRuntime().availableProcessors());
+		testDataFilename = file.toAbsolutePath().toString();
+		syntheticRecords = null;
+	}
+
+	/** Inserts count records generated lazily, partition by partition, instead of reading test data file. */
+	public static void configureSyntheticTestData(int count, SizeDistribution sizes, long seed) {
+		syntheticRecords = new SyntheticRecordSource(new SyntheticRecords(seed, sizes), count);
+	}
+
+	/** Records per insert and prediction batch. */
+	public static void configureBatchSize(int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+		}
+		PerformanceTest.batchSize = batchSize;
+	}
+
+	public static int getBatchSize() {
+		return batchSize;
+	}
+
 	public static void configureStages(Stage ... stages) {
 		PerformanceTest.stages.clear();
 		for (Stage stage : stages) {
@@ -59,154 +158,795 @@ public class PerformanceTest {
 		return stages;
 	}
 
-	public void runTest(
-			String name,
-			int limit,
-			Runnable deleteAllDataFunction,
-			Function<String, String> createEndpointFunction,
-			Function<List<String>, List<String>> insertFunction,
-			Function<List<PredictionStructureInputData>, List<String>> generatePredictionFunction,
-			Supplier<List<StructureData>> queryAndIterateJsonAllInputStructuresFunction,
-			Supplier<Integer> queryAndIterateDataAllPredictionStructuresFunction,
-			Supplier<List<EndpointData>> findAllEndpointsFunction,
-			Function<String, List<String>> findAllPredictionStructuresByEndpointIdFunction,
-			Runnable printStats)
-			throws IOException {
+	/**
+	 * Number of worker threads used for INSERT, GENERATE_PREDICTION, QUERY and FIND stages.
+	 * Values above 1 enable concurrent execution, each worker using own {@link TestCode} instance.
+	 */
+	public static void configureThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Threads must be positive: " + threads);
+		}
+		PerformanceTest.threads = threads;
+	}
+
+	public static int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Number of predictions generated in single transaction, limited by batch size.
+	 * Failed transaction is rolled back and retried as a unit up to retries times.
+	 */
+	public static void configurePredictionsPerTransaction(int predictionsPerTransaction, int retries) {
+		if (predictionsPerTransaction < 1 || retries < 0) {
+			throw new IllegalArgumentException("Invalid transaction size %s or retries %s".formatted(predictionsPerTransaction, retries));
+		}
+		PerformanceTest.predictionsPerTransaction = predictionsPerTransaction;
+		PerformanceTest.transactionRetries = retries;
+	}
+
+	public static int getPredictionsPerTransaction() {
+		return predictionsPerTransaction;
+	}
+
+	public static int getTransactionRetries() {
+		return transactionRetries;
+	}
+
+	/**
+	 * Strategy of DELETE stage. Strategy not supported by tested backend falls back to {@link DeleteStrategy#BATCHED_COMMIT}.
+	 *
+	 * @param batchSize records per transaction of batched strategies
+	 */
+	public static void configureDeleteStrategy(DeleteStrategy deleteStrategy, int batchSize) {
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Delete batch size must be positive: " + batchSize);
+		}
+		PerformanceTest.deleteStrategy = deleteStrategy;
+		PerformanceTest.deleteBatchSize = batchSize;
+	}
+
+	public static DeleteStrategy getDeleteStrategy() {
+		return deleteStrategy;
+	}
+
+	public static int getDeleteBatchSize() {
+		return deleteBatchSize;
+	}
+
+	/** Encoding of structure json stored by all backends. */
+	public static void configurePayloadEncoding(PayloadEncoding payloadEncoding) {
+		PerformanceTest.payloadEncoding = payloadEncoding;
+	}
+
+	public static PayloadEncoding getPayloadEncoding() {
+		return payloadEncoding;
+	}
+
+	/** Encoding of prediction alerts stored by all backends. */
+	public static void configureAlertsEncoding(AlertsEncoding alertsEncoding) {
+		PerformanceTest.alertsEncoding = alertsEncoding;
+	}
+
+	public static AlertsEncoding getAlertsEncoding() {
+		return alertsEncoding;
+	}
+
+	/** Directory of JSON and CSV results written after each run, null disables writing. */
+	public static void configureResultsDirectory(Path resultsDirectory) {
+		PerformanceTest.resultsDirectory = resultsDirectory;
+	}
+
+	public static Path getResultsDirectory() {
+		return resultsDirectory;
+	}
+
+	/**
+	 * Runs stages warmupIterations times unmeasured, then measurementIterations times, each iteration starting with DELETE
+	 * stage so data does not accumulate. Throughput statistics are printed over measurement iterations.
+	 */
+	public static void configureIterations(int warmupIterations, int measurementIterations) {
+		if (warmupIterations < 0 || measurementIterations < 1) {
+			throw new IllegalArgumentException("Invalid warmup %s or measurement %s iterations".formatted(warmupIterations, measurementIterations));
+		}
+		PerformanceTest.warmupIterations = warmupIterations;
+		PerformanceTest.measurementIterations = measurementIterations;
+	}
+
+	public static int getWarmupIterations() {
+		return warmupIterations;
+	}
+
+	public static int getMeasurementIterations() {
+		return measurementIterations;
+	}
+
+	/**
+	 * Starts flight recording with "profile" settings for each run, dumped into "name_timestamp.jfr" in directory.
+	 * Stage events are always recorded, event per insert and prediction batch only with batchEvents.
+	 * Null directory disables the recording, events are still emitted into recordings started externally.
+	 */
+	public static void configureFlightRecording(Path directory, boolean batchEvents) {
+		PerformanceTest.flightRecordingDirectory = directory;
+		PerformanceTest.flightRecordingBatchEvents = batchEvents;
+	}
+
+	/**
+	 * Prints records/s and batch latency of the running INSERT or GENERATE_PREDICTION stage every interval,
+	 * written also as "name_timestamp_timeline.csv" into results directory. 0 disables the timeline.
+	 */
+	public static void configureTimeline(int intervalSeconds) {
+		if (intervalSeconds < 0) {
+			throw new IllegalArgumentException("Invalid timeline interval: " + intervalSeconds);
+		}
+		PerformanceTest.timelineIntervalSeconds = intervalSeconds;
+	}
+
+	/** Runs test with test code of opened backend, worker test code is used when backend supports it. */
+	public void runTest(String name, int limit, Backend backend) throws IOException {
+		Supplier<TestCode> workerCodeFactory = backend.supports(Backend.Capability.CONCURRENT_WORKERS) ? () -> backend.createWorkerTestCode(this) : null;
+		runTest(name, limit, backend.createTestCode(this), workerCodeFactory);
+	}
+
+	/**
+	 * @param code test code used by the calling thread
+	 * @param workerCodeFactory creates test code with own database handle for each worker thread, used when {@link #getThreads()} is above 1
+	 */
+	public void runTest(String name, int limit, TestCode code, Supplier<TestCode> workerCodeFactory) throws IOException {
 		System.out.println(name);
 		System.out.println("Running performance test for %s structures".formatted(limit));
+		checkIterationsResetData();
+		this.name = name;
+		results = new BenchmarkResults(name, limit, batchSize, threads);
+		var recording = startFlightRecording();
+		timeline = timelineIntervalSeconds > 0
+			? new ThroughputTimeline(timelineIntervalSeconds, resultsDirectory != null ? resultsDirectory.resolve(results.baseName() + "_timeline.csv") : null)
+			: null;
+		List<TestCode> workers = threads > 1 ? createWorkers(workerCodeFactory) : List.of();
+		try {
+			int iterations = warmupIterations + measurementIterations;
+			for (int i=0; i<iterations; i++) {
+				warmup = i < warmupIterations;
+				iteration = warmup ? i + 1 : i - warmupIterations + 1;
+				if (iterations > 1) {
+					System.out.println("%s iteration %s of %s".formatted(warmup ? "Warmup" : "Measurement", iteration, warmup ? warmupIterations : measurementIterations));
+				}
+				latencies.reset();
+				runStages(limit, code, workers);
+			}
+		}
+		finally {
+			workers.forEach(TestCode::close);
+			startStage(null, 0);
+			if (timeline != null) {
+				timeline.close();
+			}
+			stopFlightRecording(recording);
+		}
+		if (measurementIterations > 1) {
+			results.printSummary();
+		}
+		if (resultsDirectory != null) {
+			results.write(resultsDirectory);
+		}
+	}
+
+	private Recording startFlightRecording() throws IOException {
+		if (flightRecordingDirectory == null) {
+			return null;
+		}
+		try {
+			var recording = new Recording(Configuration.getConfiguration("profile"));
+			recording.setName(name);
+			if (flightRecordingBatchEvents) {
+				recording.enable(BatchEvent.class);
+			}
+			recording.start();
+			return recording;
+		}
+		catch (ParseException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private void stopFlightRecording(Recording recording) throws IOException {
+		if (recording == null) {
+			return;
+		}
+		try (recording) {
+			recording.stop();
+			Files.createDirectories(flightRecordingDirectory);
+			var file = flightRecordingDirectory.resolve(results.baseName() + ".jfr");
+			recording.dump(file);
+			System.out.println("Flight recording written to " + file.toAbsolutePath());
+		}
+	}
+
+	/**
+	 * Commits event of the previous stage and begins event of the next one, null stage only ends the previous.
+	 * Memory used by the previous stage is printed.
+	 */
+	private void startStage(Stage stage, int records) {
+		if (stageEvent != null) {
+			stageEvent.commit();
+			stageEvent = null;
+		}
+		if (stageMemory != null) {
+			var usage = stageMemory.stop();
+			System.out.println("%s %s".formatted(currentStage, usage.format(stageRecords)));
+			if (!warmup) {
+				results.addMemory(iteration, currentStage, stageRecords, usage);
+			}
+			stageMemory = null;
+		}
+		if (timeline != null) {
+			timeline.startStage(stage);
+		}
+		if (stage == null) {
+			return;
+		}
+		currentStage = stage;
+		stageEvent = new StageEvent();
+		stageEvent.backend = name;
+		stageEvent.stage = stage.name();
+		stageEvent.iteration = iteration;
+		stageEvent.warmup = warmup;
+		stageEvent.records = records;
+		stageEvent.begin();
+		stageRecords = records;
+		stageMemory = StageMemory.start();
+	}
+
+	/** Stages writing data cannot be repeated without DELETE stage, inserted structures would accumulate. */
+	private static void checkIterationsResetData() {
+		boolean repeated = warmupIterations + measurementIterations > 1;
+		boolean writes = stages.contains(Stage.CREATE_ENDPOINT) || stages.contains(Stage.INSERT) || stages.contains(Stage.GENERATE_PREDICTION);
+		if (repeated && writes && !stages.contains(Stage.ALL) && !stages.contains(Stage.DELETE)) {
+			throw new IllegalStateException("Stages %s write data, repeated iterations require DELETE stage".formatted(stages));
+		}
+	}
+
+	/** Results of the last run. */
+	public BenchmarkResults getResults() {
+		return results;
+	}
+
+	private void runStages(int limit, TestCode code, List<TestCode> workers) throws IOException {
+		boolean concurrent = !workers.isEmpty();
 
 		if (stages.contains(Stage.ALL) || stages.contains(Stage.DELETE)) {
-			System.out.println("Deleting all data");
-			deleteAllDataFunction.run();
+			startStage(Stage.DELETE, limit);
+			var deleted = deleteAllData(code.supportedDeleteStrategies(), code.deleteAllDataFunction());
+			System.out.println("Deleted %s vertices in %s ms, %s vertices/s".formatted(deleted, operationsTimeInMs(), opsPerSecond(deleted, operationsTimeInNano())));
+			printRoundTrips((int) deleted);
+			latencies.print(Stage.DELETE, Operation.DELETE_BATCH);
+			addResult(Operation.DELETE_BATCH, deleted);
+			reset();
 		}
 
 		List<String> endpointIds;
 		if (stages.contains(Stage.ALL) || stages.contains(Stage.CREATE_ENDPOINT)) {
-			endpointIds = createEndpoints(createEndpointFunction);
+			startStage(Stage.CREATE_ENDPOINT, limit);
+			endpointIds = createEndpoints(code.createEndpointFunction());
 			System.out.println("Created %s endpoints in %s requests %s ms".formatted(endpointIds.size(), endpointIds.size(), operationsTimeInMs()));
 			System.out.println("Average create endpoint time %s ns".formatted(operationsTimeInNano() / endpointIds.size()));
+			latencies.print(Stage.CREATE_ENDPOINT, Operation.CREATE_ENDPOINT);
+			addResult(Operation.CREATE_ENDPOINT, endpointIds.size());
 			reset();
 		} else {
-			endpointIds = findAllEndpoints(findAllEndpointsFunction).stream().map(EndpointData::getId).toList();
+			// lookup of existing data belongs to no stage
+			startStage(null, 0);
+			endpointIds = findAllEndpoints(code.findAllEndpointsFunction()).stream().map(EndpointData::getId).toList();
 			reset();
 		}
 
 		var predictionInputs = generatePredictionInputs(limit, endpointIds);
 		List<String> structureIds;
 		if (stages.contains(Stage.ALL) || stages.contains(Stage.INSERT)) {
-			var records = readRecords();
-			structureIds = insertStructures(records, limit, insertFunction);
+			startStage(Stage.INSERT, limit);
+			try (var records = readRecords()) {
+				structureIds = concurrent
+					? insertStructuresConcurrently(records, limit, workers)
+					: insertStructures(records, limit, code.insertFunction());
+			}
 			System.out.println("Insert input structures time: %s ms".formatted(operationsTimeInMs()));
 			System.out.println("Average time per structure insert: %s ns".formatted(operationsTimeInNano()/limit));
+			System.out.println("Payload encoding %s: %s structures/s".formatted(payloadEncoding, opsPerSecond(structureIds.size(), operationsTimeInNano())));
+			printStorageSize(code, structureIds.size());
+			printRoundTrips(structureIds.size());
+			latencies.print(Stage.INSERT, Operation.INSERT_BATCH);
+			latencies.print(Stage.INSERT, Operation.INSERT_RECORD);
+			addResult(Operation.INSERT_BATCH, structureIds.size());
 			reset();
 		} else {
-			structureIds = queryAndIterateJsonAllInputStructures(queryAndIterateJsonAllInputStructuresFunction).stream()
+			startStage(null, 0);
+			structureIds = queryAndIterateJsonAllInputStructures(code.queryAndIterateJsonAllInputStructuresFunction()).stream()
 				.map(StructureData::id).toList();
 			reset();
 		}
 
 		if (stages.contains(Stage.ALL) || stages.contains(Stage.GENERATE_PREDICTION)) {
+			startStage(Stage.GENERATE_PREDICTION, limit);
 			IntStream.range(0, structureIds.size()).forEach(i -> predictionInputs.get(i).setInputStructureId(structureIds.get(i)));
-			var predictionStructureIds = generatePredictionsForInputStructures(predictionInputs, generatePredictionFunction);
+			retriedTransactions.set(0);
+			var predictionStructureIds = concurrent
+				? generatePredictionsForInputStructuresConcurrently(predictionInputs, workers)
+				: generatePredictionsForInputStructures(predictionInputs, code.predictFunction());
 			System.out.println("Generate predictions time: %s ms".formatted(operationsTimeInMs()));
 			System.out.println("Average time per prediction insert: %s ns".formatted(operationsTimeInNano()/limit));
+			System.out.println("Predictions per transaction %s: %s predictions/s, %s retried transactions".formatted(
+				predictionsPerTransaction, opsPerSecond(predictionStructureIds.size(), operationsTimeInNano()), retriedTransactions.get()));
+			printStorageSize(code, structureIds.size());
+			printRoundTrips(predictionStructureIds.size());
+			latencies.print(Stage.GENERATE_PREDICTION, Operation.PREDICTION_BATCH);
+			latencies.print(Stage.GENERATE_PREDICTION, Operation.PREDICTION);
+			latencies.print(Stage.GENERATE_PREDICTION, Operation.PREDICTION_TRANSACTION);
+			addResult(Operation.PREDICTION, predictionStructureIds.size());
 			reset();
 		}
 
-		if (stages.contains(Stage.ALL) || stages.contains(Stage.QUERY)) {
-			var inputStructuresRetrievedCount = queryAndIterateJsonAllInputStructures(queryAndIterateJsonAllInputStructuresFunction).size();
+		if (concurrent && (stages.contains(Stage.ALL) || stages.contains(Stage.QUERY))) {
+			startStage(Stage.QUERY, limit);
+			var inputStructuresRetrievedCount = runOnWorkers("Query input structures", workers,
+				(workerIndex, worker) -> streamAllInputStructures(worker.streamAllInputStructuresFunction()));
+			System.out.println("Retrieved all input structures (%s by all threads) in time %s ms".formatted(inputStructuresRetrievedCount, operationsTimeInMs()));
+			System.out.println("Payload encoding %s: %s structures/s".formatted(payloadEncoding, opsPerSecond(inputStructuresRetrievedCount, operationsTimeInNano())));
+			latencies.print(Stage.QUERY, Operation.SCAN_INPUT_STRUCTURES);
+			addResult(Operation.SCAN_INPUT_STRUCTURES, inputStructuresRetrievedCount);
+			reset();
+
+			var predictionStructuresRetrievedCount = runOnWorkers("Query prediction structures", workers,
+				(workerIndex, worker) -> queryAndIterateDataAllPredictionStructures(worker.queryAndIterateDataAllPredictionStructuresFunction()));
+			System.out.println("Retrieved all prediction structures with related records (%s by all threads) in time %s ms".formatted(predictionStructuresRetrievedCount, operationsTimeInMs()));
+			System.out.println("Alerts encoding %s: decoding %s ms summed over threads".formatted(alertsEncoding, alertsDecodingTime.get() / 1000000));
+			latencies.print(Stage.QUERY, Operation.SCAN_PREDICTION_STRUCTURES);
+			addResult(Operation.SCAN_PREDICTION_STRUCTURES, predictionStructuresRetrievedCount);
+			reset();
+		}
+		else if (stages.contains(Stage.ALL) || stages.contains(Stage.QUERY)) {
+			startStage(Stage.QUERY, limit);
+			var inputStructuresRetrievedCount = streamAllInputStructures(code.streamAllInputStructuresFunction());
 			System.out.println("Retrieved all input structures (%s) in time %s ms".formatted(inputStructuresRetrievedCount, operationsTimeInMs()));
+			System.out.println("Payload encoding %s: %s structures/s".formatted(payloadEncoding, opsPerSecond(inputStructuresRetrievedCount, operationsTimeInNano())));
+			latencies.print(Stage.QUERY, Operation.SCAN_INPUT_STRUCTURES);
+			addResult(Operation.SCAN_INPUT_STRUCTURES, inputStructuresRetrievedCount);
 			reset();
 
-			var predictionStructuresRetrievedCount = queryAndIterateDataAllPredictionStructures(queryAndIterateDataAllPredictionStructuresFunction);
+			var predictionStructuresRetrievedCount = queryAndIterateDataAllPredictionStructures(code.queryAndIterateDataAllPredictionStructuresFunction());
 			System.out.println("Retrieved all prediction structures with related records (%s) in time %s ms".formatted(predictionStructuresRetrievedCount, operationsTimeInMs()));
+			System.out.println("Alerts encoding %s: decoding %s ms of %s ms".formatted(alertsEncoding, alertsDecodingTime.get() / 1000000, operationsTimeInMs()));
+			latencies.print(Stage.QUERY, Operation.SCAN_PREDICTION_STRUCTURES);
+			addResult(Operation.SCAN_PREDICTION_STRUCTURES, predictionStructuresRetrievedCount);
 			reset();
 		}
 
-		if (stages.contains(Stage.ALL) || stages.contains(Stage.FIND)) {
-			var endpoints = findAllEndpoints(findAllEndpointsFunction);
+		if (concurrent && (stages.contains(Stage.ALL) || stages.contains(Stage.FIND))) {
+			startStage(Stage.FIND, limit);
+			var endpointsCount = runOnWorkers("Search all endpoints", workers,
+				(workerIndex, worker) -> findAllEndpoints(worker.findAllEndpointsFunction()).size());
+			System.out.println("Search all endpoints (%s by all threads) %s ms".formatted(endpointsCount, operationsTimeInMs()));
+			latencies.print(Stage.FIND, Operation.FIND_ENDPOINTS);
+			addResult(Operation.FIND_ENDPOINTS, endpointsCount);
+			reset();
+
+			var endpoints = findAllEndpoints(code.findAllEndpointsFunction());
+			reset();
+			var predictionStructuresByEndpointCount = runOnWorkers("Find prediction structures by endpoint id", workers,
+				(workerIndex, worker) -> findAllPredictionStructuresByEndpointId(worker.findAllPredictionStructuresByEndpointIdFunction(), endpoints.get(workerIndex % endpoints.size()).getId()).size());
+			System.out.println("Found %s prediction structures by endpoint id on all threads in %s ms".formatted(predictionStructuresByEndpointCount, operationsTimeInMs()));
+			latencies.print(Stage.FIND, Operation.FIND_PREDICTION_STRUCTURES_BY_ENDPOINT);
+			addResult(Operation.FIND_PREDICTION_STRUCTURES_BY_ENDPOINT, predictionStructuresByEndpointCount);
+			reset();
+		}
+		else if (stages.contains(Stage.ALL) || stages.contains(Stage.FIND)) {
+			startStage(Stage.FIND, limit);
+			var endpoints = findAllEndpoints(code.findAllEndpointsFunction());
 			System.out.println("Search all endpoints (%s) %s ms".formatted(endpoints.size(), operationsTimeInMs()));
+			latencies.print(Stage.FIND, Operation.FIND_ENDPOINTS);
+			addResult(Operation.FIND_ENDPOINTS, endpoints.size());
 			reset();
 
-			var predictionStructuresByEndpoint = findAllPredictionStructuresByEndpointId(findAllPredictionStructuresByEndpointIdFunction, endpoints.get(0).getId());
+			var predictionStructuresByEndpoint = findAllPredictionStructuresByEndpointId(code.findAllPredictionStructuresByEndpointIdFunction(), endpoints.get(0).getId());
 			System.out.println("Found %s prediction structures by endpoint id in %s ms".formatted(predictionStructuresByEndpoint.size(), operationsTimeInMs()));
+			latencies.print(Stage.FIND, Operation.FIND_PREDICTION_STRUCTURES_BY_ENDPOINT);
+			addResult(Operation.FIND_PREDICTION_STRUCTURES_BY_ENDPOINT, predictionStructuresByEndpoint.size());
 			reset();
 		}
 
-		printStats.run();
+		startStage(null, 0);
+		code.printStatsFunction().run();
 	}
 
-	private List<String> createEndpoints(Function<String, String> createEndpointFunction) {
+	private long deleteAllData(Set<DeleteStrategy> supportedStrategies, Function<DeleteStrategy, Long> deleteAllDataFunction) {
+		var strategy = deleteStrategy;
+		if (!supportedStrategies.contains(strategy)) {
+			System.out.println("%s not supported by backend, falling back to %s".formatted(strategy, DeleteStrategy.BATCHED_COMMIT));
+			strategy = DeleteStrategy.BATCHED_COMMIT;
+		}
+		System.out.println("Deleting all data with %s".formatted(strategy));
 		long start = System.nanoTime();
+		long deleted = deleteAllDataFunction.apply(strategy);
+		operationsTime.addAndGet(System.nanoTime() - start);
+		return deleted;
+	}
+
+	private List<String> createEndpoints(Function<String, String> createEndpointFunction) {
 		var endpointIds = new ArrayList<String>(endpoints.size());
 		for (var endpointName : endpoints) {
+			long start = System.nanoTime();
 			var value = createEndpointFunction.apply(endpointName);
+			long end = System.nanoTime();
+			addOperationTime(Operation.CREATE_ENDPOINT, end - start);
 			endpointIds.add(value);
 		}
-		long end = System.nanoTime();
-		operationsTime.set(operationsTime.get() + (end-start));
 		return endpointIds;
 	}
 
-	public List<RecordData> readRecords() throws IOException {
-		List<RecordData> records = new LinkedList<>();
-		try (var is = PerformanceTest.class.getResourceAsStream(testDataFilename)) {
-			var br = new BufferedReader(new InputStreamReader(is));
-			String line;
-			while ((line = br.readLine()) != null) {
-				records.add(new RecordData(line));
+	/** Maps test data file, records are read from it on demand. Synthetic records are generated on demand instead. */
+	public RecordSource readRecords() throws IOException {
+		if (syntheticRecords != null) {
+			System.out.println("Test data: " + syntheticRecords);
+			return syntheticRecords;
+		}
+		return MappedRecordSource.open(testDataFile());
+	}
+
+	/**
+	 * Resolves {@link #testDataFilename} as classpath resource first, then as file path.
+	 * Compressed file is decompressed into temporary file on each run.
+	 */
+	private static Path testDataFile() throws IOException {
+		var url = PerformanceTest.class.getResource(testDataFilename);
+		boolean gzip = testDataFilename.endsWith(".gz");
+		if (url == null) {
+			var file = Paths.get(testDataFilename);
+			if (!Files.exists(file)) {
+				throw new FileNotFoundException(testDataFilename);
 			}
+			return gzip ? copyToTempFile(Files.newInputStream(file), true) : file;
+		}
+		if (gzip || !"file".equals(url.getProtocol())) {
+			// resource packed inside jar or compressed file cannot be mapped
+			return copyToTempFile(url.openStream(), gzip);
+		}
+		try {
+			return Paths.get(url.toURI());
+		}
+		catch (URISyntaxException e) {
+			throw new IOException(e);
+		}
+	}
+
+	private static Path copyToTempFile(InputStream is, boolean gzip) throws IOException {
+		var file = Files.createTempFile("testdata", null);
+		file.toFile().deleteOnExit();
+		try (var in = gzip ? new GZIPInputStream(is, 65536) : is) {
+			Files.copy(in, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+		return file;
+	}
+
+	private void printStorageSize(TestCode code, int structures) {
+		long size = code.storageSizeFunction().get();
+		if (size >= 0 && structures > 0) {
+			System.out.println("Storage size %s bytes, %s bytes per structure".formatted(size, size / structures));
 		}
-		return records;
 	}
 
-	private List<String> insertStructures(List<RecordData> records, int recordsSize, Function<List<String>, List<String>> l) {
-		List<List<Integer>> partitions = Lists.partition(IntStream.range(0, recordsSize).mapToObj(i -> Integer.valueOf(i)).toList(), batchSize);
+	private List<String> insertStructures(RecordSource records, int recordsSize, Function<List<Object>, List<String>> l) {
+		checkRecordsAvailable(records, recordsSize);
 		List<String> allIds = new ArrayList<String>(recordsSize);
-		for (var list : partitions) {
-			var ids = insertStructuresForPartition(records, list, l);
+		for (int from=0; from<recordsSize; from+=batchSize) {
+			var ids = insertStructuresForPartition(records, from, Math.min(from + batchSize, recordsSize), l);
 			allIds.addAll(ids);
 		}
 		return allIds;
 	}
 
-	private List<String> insertStructuresForPartition(List<RecordData> records, List<Integer> partition, Function<List<String>, List<String>> l) {
-		var structuresJson = partition.stream()
-			.map(i -> {
-				var r = records.get(i.intValue());
-				return Utils.toBase64(r.getJson());
-			}).toList();
+	private static void checkRecordsAvailable(RecordSource records, int recordsSize) {
+		if (records.size() < recordsSize) {
+			var testData = records instanceof SyntheticRecordSource ? records.toString() : testDataFilename;
+			throw new IllegalArgumentException("Test data %s contains %s records, %s required".formatted(testData, records.size(), recordsSize));
+		}
+	}
+
+	/** Payloads are read and encoded before measurement starts. */
+	private List<String> insertStructuresForPartition(RecordSource records, int from, int to, Function<List<Object>, List<String>> l) {
+		var structuresJson = IntStream.range(from, to)
+			.mapToObj(i -> payloadEncoding.encode(records.get(i)))
+			.toList();
+		var event = beginBatchEvent(Operation.INSERT_BATCH, from / batchSize, to - from);
 		long start = System.nanoTime();
 		var ids = l.apply(structuresJson);
 		long end = System.nanoTime();
-		operationsTime.set(operationsTime.get() + (end - start));
+		event.commit();
+		addOperationTime(Operation.INSERT_BATCH, end - start);
+		addToTimeline(ids.size(), end - start);
 		return ids;
 	}
 
 	private List<String> generatePredictionsForInputStructures(List<PredictionStructureInputData> predictionStructureDataInputs, Function<List<PredictionStructureInputData>, List<String>> l) {
 		List<List<PredictionStructureInputData>> partitions = Lists.partition(IntStream.range(0, predictionStructureDataInputs.size()).mapToObj(i -> predictionStructureDataInputs.get(i)).toList(), batchSize);
 		List<String> allIds = new ArrayList<String>(predictionStructureDataInputs.size());
-		for (var list : partitions) {
-			var computedIds = generatePredictionsForInputStructuresForPartition(list, l);
+		for (int i=0; i<partitions.size(); i++) {
+			var computedIds = generatePredictionsForInputStructuresForPartition(partitions.get(i), i, l);
 			allIds.addAll(computedIds);
 		}
 		return allIds;
 	}
 
-	private List<String> generatePredictionsForInputStructuresForPartition(List<PredictionStructureInputData> predictionStructureDataInputs, Function<List<PredictionStructureInputData>, List<String>> l) {
+	private List<String> generatePredictionsForInputStructuresForPartition(List<PredictionStructureInputData> predictionStructureDataInputs, int batchIndex, Function<List<PredictionStructureInputData>, List<String>> l) {
+		var event = beginBatchEvent(Operation.PREDICTION_BATCH, batchIndex, predictionStructureDataInputs.size());
 		long start = System.nanoTime();
 		var computedIds = l.apply(predictionStructureDataInputs);
 		long end = System.nanoTime();
-		operationsTime.set(operationsTime.get() + (end-start));
+		event.commit();
+		addOperationTime(Operation.PREDICTION_BATCH, end - start);
+		addToTimeline(computedIds.size(), end - start);
 		return computedIds;
 	}
 
+	private void addToTimeline(int records, long batchTimeNs) {
+		if (timeline != null) {
+			timeline.record(records, batchTimeNs);
+		}
+	}
+
+	/** Fields are filled only when the event is enabled, commit of disabled event does nothing. */
+	private BatchEvent beginBatchEvent(Operation operation, int batchIndex, int records) {
+		var event = new BatchEvent();
+		if (event.isEnabled()) {
+			event.backend = name;
+			event.stage = currentStage.name();
+			event.operation = operation.name();
+			event.batchIndex = batchIndex;
+			event.records = records;
+			event.begin();
+		}
+		return event;
+	}
+
+	/**
+	 * Generates predictions in transactions of {@link #getPredictionsPerTransaction()} predictions, used by predict functions of test code.
+	 * Transaction that fails is rolled back and retried as a unit. Without transactions (tx false) nothing can be
+	 * rolled back, so failure is rethrown immediately.
+	 *
+	 * @param prediction creates single prediction inside already open transaction
+	 */
+	public <T> List<T> generatePredictionsInTransactions(TestCode code, boolean tx, List<PredictionStructureInputData> inputs, Function<PredictionStructureInputData, T> prediction) {
+		return inTransactions(code, tx, inputs, predictionsPerTransaction, transactionInputs -> {
+			List<T> transactionResults = new ArrayList<>(transactionInputs.size());
+			for (var inputData : transactionInputs) {
+				long predictionStart = System.nanoTime();
+				transactionResults.add(prediction.apply(inputData));
+				recordLatency(Operation.PREDICTION, System.nanoTime() - predictionStart);
+			}
+			return transactionResults;
+		});
+	}
+
+	/**
+	 * Same transactions and retries as {@link #generatePredictionsInTransactions}, for test code writing all predictions
+	 * of a transaction with single request. Transactions are limited to maxBatchSize predictions, single predictions
+	 * are not observable, so only transaction latency is recorded.
+	 *
+	 * @param batchPrediction creates all predictions of transaction inside already open transaction
+	 */
+	public <T> List<T> generatePredictionBatchesInTransactions(TestCode code, boolean tx, List<PredictionStructureInputData> inputs, int maxBatchSize,
+		Function<List<PredictionStructureInputData>, List<T>> batchPrediction) {
+		return inTransactions(code, tx, inputs, Math.min(predictionsPerTransaction, maxBatchSize), batchPrediction);
+	}
+
+	private <T> List<T> inTransactions(TestCode code, boolean tx, List<PredictionStructureInputData> inputs, int transactionSize,
+		Function<List<PredictionStructureInputData>, List<T>> transaction) {
+		List<T> results = new ArrayList<>(inputs.size());
+		for (var transactionInputs : Lists.partition(inputs, transactionSize)) {
+			for (int attempt=0; ; attempt++) {
+				long transactionStart = System.nanoTime();
+				List<T> transactionResults;
+				code.txOpen();
+				try {
+					transactionResults = transaction.apply(transactionInputs);
+					code.txCommit();
+				}
+				catch (RuntimeException e) {
+					rollbackAfterFailure(code, e);
+					if (!tx || attempt >= transactionRetries) {
+						throw e;
+					}
+					retriedTransactions.incrementAndGet();
+					continue;
+				}
+				recordLatency(Operation.PREDICTION_TRANSACTION, System.nanoTime() - transactionStart);
+				results.addAll(transactionResults);
+				break;
+			}
+		}
+		return results;
+	}
+
+	/** Failed commit may already have closed transaction, rollback failure is only attached to the original one. */
+	private static void rollbackAfterFailure(TestCode code, RuntimeException failure) {
+		try {
+			code.txRollback();
+		}
+		catch (RuntimeException e) {
+			failure.addSuppressed(e);
+		}
+	}
+
+	private List<TestCode> createWorkers(Supplier<TestCode> workerCodeFactory) {
+		if (workerCodeFactory == null) {
+			throw new IllegalStateException("Worker test code factory required for %s threads".formatted(threads));
+		}
+		List<TestCode> workers = new ArrayList<>(threads);
+		try {
+			for (int i=0; i<threads; i++) {
+				workers.add(workerCodeFactory.get());
+			}
+		}
+		catch (RuntimeException e) {
+			workers.forEach(TestCode::close);
+			throw e;
+		}
+		return workers;
+	}
+
+	private List<String> insertStructuresConcurrently(RecordSource records, int recordsSize, List<TestCode> workers) {
+		checkRecordsAvailable(records, recordsSize);
+		int partitionsCount = (recordsSize + batchSize - 1) / batchSize;
+		List<List<String>> partitionIds = new ArrayList<>(Collections.nCopies(partitionsCount, null));
+		runOnWorkers("Insert input structures", workers, (workerIndex, worker) -> {
+			var insertFunction = worker.insertFunction();
+			int inserted = 0;
+			for (int i=workerIndex; i<partitionsCount; i+=workers.size()) {
+				int from = i * batchSize;
+				var ids = insertStructuresForPartition(records, from, Math.min(from + batchSize, recordsSize), insertFunction);
+				partitionIds.set(i, ids);
+				inserted += ids.size();
+			}
+			return inserted;
+		});
+		return partitionIds.stream().flatMap(List::stream).toList();
+	}
+
+	private List<String> generatePredictionsForInputStructuresConcurrently(List<PredictionStructureInputData> predictionStructureDataInputs, List<TestCode> workers) {
+		List<List<PredictionStructureInputData>> partitions = Lists.partition(predictionStructureDataInputs, batchSize);
+		List<List<String>> partitionIds = new ArrayList<>(Collections.nCopies(partitions.size(), null));
+		runOnWorkers("Generate predictions", workers, (workerIndex, worker) -> {
+			var predictFunction = worker.predictFunction();
+			int generated = 0;
+			for (int i=workerIndex; i<partitions.size(); i+=workers.size()) {
+				var ids = generatePredictionsForInputStructuresForPartition(partitions.get(i), i, predictFunction);
+				partitionIds.set(i, ids);
+				generated += ids.size();
+			}
+			return generated;
+		});
+		return partitionIds.stream().flatMap(List::stream).toList();
+	}
+
+	/**
+	 * Runs task on every worker in own thread, prints per thread and aggregate throughput.
+	 * Operations time is replaced with wall clock time of the slowest worker.
+	 *
+	 * @return number of operations summed over all workers
+	 */
+	private long runOnWorkers(String operationName, List<TestCode> workers, WorkerTask task) {
+		var executor = Executors.newFixedThreadPool(workers.size());
+		try {
+			List<Future<long[]>> futures = new ArrayList<>(workers.size());
+			long start = System.nanoTime();
+			for (int i=0; i<workers.size(); i++) {
+				int workerIndex = i;
+				var worker = workers.get(i);
+				var memory = stageMemory;
+				futures.add(executor.submit(() -> {
+					long workerStart = System.nanoTime();
+					long allocatedStart = StageMemory.currentThreadAllocatedBytes();
+					try {
+						int operations = task.run(workerIndex, worker);
+						return new long[] {operations, System.nanoTime() - workerStart};
+					}
+					finally {
+						if (memory != null) {
+							memory.addFinishedThread(StageMemory.currentThreadAllocatedBytes() - allocatedStart);
+						}
+					}
+				}));
+			}
+			List<long[]> results = new ArrayList<>(futures.size());
+			for (var future : futures) {
+				results.add(future.get());
+			}
+			long wallTime = System.nanoTime() - start;
+			operationsTime.set(wallTime);
+
+			long totalOperations = 0;
+			for (int i=0; i<results.size(); i++) {
+				long operations = results.get(i)[0];
+				long time = results.get(i)[1];
+				totalOperations += operations;
+				System.out.println("  %s thread %s: %s operations in %s ms, %s ops/s".formatted(operationName, i, operations, time / 1000000, opsPerSecond(operations, time)));
+			}
+			System.out.println("%s aggregate: %s operations on %s threads in %s ms, %s ops/s".formatted(operationName, totalOperations, workers.size(), wallTime / 1000000, opsPerSecond(totalOperations, wallTime)));
+			return totalOperations;
+		}
+		catch (ExecutionException e) {
+			throw e.getCause() instanceof RuntimeException re ? re : new RuntimeException(e.getCause());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static long opsPerSecond(long operations, long timeNs) {
+		return timeNs > 0 ? operations * 1000000000L / timeNs : 0;
+	}
+
+	@FunctionalInterface
+	private interface WorkerTask {
+		/** @return number of operations completed by worker */
+		int run(int workerIndex, TestCode worker);
+	}
+
+	private void addOperationTime(Operation operation, long time) {
+		operationsTime.addAndGet(time);
+		recordLatency(operation, time);
+	}
+
+	/** Records latency of a single operation into histogram of the current stage. Thread safe. */
+	public void recordLatency(Operation operation, long timeNs) {
+		latencies.record(currentStage, operation, timeNs);
+	}
+
+	public LatencyHistograms getLatencies() {
+		return latencies;
+	}
+
+	/** Adds measurement of the current stage to results, count operations in operations time. Warmup is not recorded. */
+	private void addResult(Operation operation, long count) {
+		if (!warmup) {
+			results.add(iteration, currentStage, operation, count, operationsTimeInNano(), latencies.get(currentStage, operation));
+		}
+	}
+
+	/**
+	 * Decodes stored alerts with {@link #getAlertsEncoding()}, time spent is reported with prediction structures scan. Thread safe.
+	 *
+	 * @return number of alerts
+	 */
+	public int countAlerts(Object alerts) {
+		long start = System.nanoTime();
+		int count = alertsEncoding.count(alerts);
+		alertsDecodingTime.addAndGet(System.nanoTime() - start);
+		return count;
+	}
+
+	/** Counts requests sent to remote server, test code that does not call it reports no round trips. Thread safe. */
+	public void addRoundTrips(long count) {
+		roundTrips.addAndGet(count);
+	}
+
+	private void printRoundTrips(int records) {
+		if (roundTrips.get() > 0 && records > 0) {
+			System.out.println("Round trips %s, %.3f per record, %s records/s".formatted(
+				roundTrips.get(), (double) roundTrips.get() / records, opsPerSecond(records, operationsTimeInNano())));
+		}
+	}
+
 	private AtomicLong getOperationsTime() {
 		return operationsTime;
 	}
 
 	private void reset() {
 		operationsTime.set(0);
+		roundTrips.set(0);
+		alertsDecodingTime.set(0);
 	}
 
 	private long operationsTimeInNano() {
@@ -245,7 +985,15 @@ public class PerformanceTest {
 		long start = System.nanoTime();
 		var value = queryAndIterateJsonAllInputStructuresFunction.get();
 		long end = System.nanoTime();
-		operationsTime.set(operationsTime.get() + (end-start));
+		addOperationTime(Operation.SCAN_INPUT_STRUCTURES, end - start);
+		return value;
+	}
+
+	private int streamAllInputStructures(Supplier<Integer> streamAllInputStructuresFunction) {
+		long start = System.nanoTime();
+		var value = streamAllInputStructuresFunction.get().intValue();
+		long end = System.nanoTime();
+		addOperationTime(Operation.SCAN_INPUT_STRUCTURES, end - start);
 		return value;
 	}
 
@@ -253,7 +1001,7 @@ public class PerformanceTest {
 		long start = System.nanoTime();
 		var value = queryAndIterateDataAllPredictionStructuresFunction.get().intValue();
 		long end = System.nanoTime();
-		operationsTime.set(operationsTime.get() + (end-start));
+		addOperationTime(Operation.SCAN_PREDICTION_STRUCTURES, end - start);
 		return value;
 	}
 
@@ -261,7 +1009,7 @@ public class PerformanceTest {
 		long start = System.nanoTime();
 		var value = findAllEndpointsFunction.get();
 		long end = System.nanoTime();
-		operationsTime.set(operationsTime.get() + (end-start));
+		addOperationTime(Operation.FIND_ENDPOINTS, end - start);
 		return value;
 	}
 
@@ -269,7 +1017,7 @@ public class PerformanceTest {
 		long start = System.nanoTime();
 		var value = findAllPredictionStructuresByEndpointIdFunction.apply(id);
 		long end = System.nanoTime();
-		operationsTime.set(operationsTime.get() + (end-start));
+		addOperationTime(Operation.FIND_PREDICTION_STRUCTURES_BY_ENDPOINT, end - start);
 		return value;
 	}
 }
\ No newline at end of file
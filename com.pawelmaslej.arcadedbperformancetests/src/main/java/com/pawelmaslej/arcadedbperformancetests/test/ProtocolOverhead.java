@@ -0,0 +1,71 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compares results of a remote backend with its embedded counterpart run on the same machine. The counterpart runs
+ * the same test code with the same batch sizes and transactions, so its time per operation is engine time
+ * and the rest of remote time per operation is protocol, serialization and client overhead.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class ProtocolOverhead {
+
+	/** Times are microseconds per operation derived from mean throughput, overheadPercent is share of remote time. */
+	public record Row(String operation, double embeddedOpsPerSecond, double remoteOpsPerSecond, double engineUs, double remoteUs,
+		double overheadUs, double overheadPercent) {
+	}
+
+	static final String HEADER = "embedded,remote,operation,embeddedOpsPerSecond,remoteOpsPerSecond,engineUs,remoteUs,overheadUs,overheadPercent";
+
+	String embeddedName;
+	String remoteName;
+	List<Row> rows = new ArrayList<>();
+
+	/** Stage operations measured by both runs with non zero throughput are compared. */
+	public ProtocolOverhead(String embeddedName, BenchmarkResults embedded, String remoteName, BenchmarkResults remote) {
+		this.embeddedName = embeddedName;
+		this.remoteName = remoteName;
+		var embeddedSummary = embedded.summary();
+		remote.summary().forEach((operation, remoteStatistics) -> {
+			var embeddedStatistics = embeddedSummary.get(operation);
+			if (embeddedStatistics == null || embeddedStatistics.mean() <= 0 || remoteStatistics.mean() <= 0) {
+				return;
+			}
+			double engineUs = 1000000 / embeddedStatistics.mean();
+			double remoteUs = 1000000 / remoteStatistics.mean();
+			double overheadUs = remoteUs - engineUs;
+			rows.add(new Row(operation, embeddedStatistics.mean(), remoteStatistics.mean(), engineUs, remoteUs, overheadUs, overheadUs * 100 / remoteUs));
+		});
+	}
+
+	public List<Row> getRows() {
+		return rows;
+	}
+
+	public void print() {
+		System.out.println("Protocol overhead of %s over %s".formatted(remoteName, embeddedName));
+		rows.forEach(r -> System.out.println("  %s: engine %.1f us, remote %.1f us, overhead %.1f us (%.0f%%), %.0f vs %.0f ops/s".formatted(
+			r.operation(), r.engineUs(), r.remoteUs(), r.overheadUs(), r.overheadPercent(), r.embeddedOpsPerSecond(), r.remoteOpsPerSecond())));
+	}
+
+	/** Writes "overhead_remote_timestamp.csv" into directory. */
+	public Path write(Path dir) throws IOException {
+		Files.createDirectories(dir);
+		var csv = dir.resolve(BenchmarkResults.baseName("overhead_" + remoteName, LocalDateTime.now()) + ".csv");
+		var lines = new ArrayList<String>();
+		lines.add(HEADER);
+		rows.forEach(r -> lines.add(String.format(Locale.ROOT, "%s,%s,%s,%.1f,%.1f,%.2f,%.2f,%.2f,%.1f", embeddedName, remoteName, r.operation(),
+			r.embeddedOpsPerSecond(), r.remoteOpsPerSecond(), r.engineUs(), r.remoteUs(), r.overheadUs(), r.overheadPercent())));
+		Files.write(csv, lines);
+		System.out.println("Protocol overhead written to " + csv.toAbsolutePath());
+		return csv;
+	}
+}
\ No newline at end of file
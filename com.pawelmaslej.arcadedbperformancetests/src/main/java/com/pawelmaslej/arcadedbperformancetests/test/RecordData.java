@@ -1,10 +0,0 @@
-package com.pawelmaslej.arcadedbperformancetests.test;
-
-import lombok.AllArgsConstructor;
-import lombok.Getter;
-
-@AllArgsConstructor
-@Getter
-public class RecordData {
-	String json;
-}
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Test data records, one JSON payload per record. Implementations should not keep payloads on the heap
+ * and must allow concurrent {@link #get(int)} calls.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public interface RecordSource extends AutoCloseable {
+
+	int size();
+
+	String get(int index);
+
+	default Stream<String> stream() {
+		return IntStream.range(0, size()).mapToObj(this::get);
+	}
+
+	@Override
+	void close();
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Distribution of generated record sizes in bytes, sampled sizes are clamped to [minSize, maxSize].
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public record SizeDistribution(Shape shape, int minSize, int maxSize) {
+
+	public enum Shape {
+		/** every record minSize */
+		FIXED,
+		/** uniform between minSize and maxSize */
+		UNIFORM,
+		/** heavy tail starting at minSize, mostly small records with occasional ones close to maxSize */
+		PARETO
+	}
+
+	/** Pareto shape of the 80/20 rule. */
+	static final double PARETO_ALPHA = 1.16;
+
+	public SizeDistribution {
+		if (minSize < 1 || maxSize < minSize) {
+			throw new IllegalArgumentException("Invalid size range %s-%s".formatted(minSize, maxSize));
+		}
+	}
+
+	/** Parses "SHAPE:min:max", e.g. "PARETO:200:4000000". */
+	public static SizeDistribution parse(String text) {
+		var parts = text.split(":");
+		if (parts.length != 3) {
+			throw new IllegalArgumentException("Expected SHAPE:min:max, got " + text);
+		}
+		return new SizeDistribution(Shape.valueOf(parts[0].toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+	}
+
+	public int sample(SplittableRandom random) {
+		double size = switch (shape) {
+			case FIXED -> minSize;
+			case UNIFORM -> minSize + random.nextDouble() * (maxSize - minSize);
+			case PARETO -> minSize / Math.pow(1.0 - random.nextDouble(), 1.0 / PARETO_ALPHA);
+		};
+		return (int) Math.min(maxSize, size);
+	}
+
+	@Override
+	public String toString() {
+		return "%s:%s:%s".formatted(shape, minSize, maxSize);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,35 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event spanning one stage of {@link PerformanceTest}, committed when the next stage starts.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+@Name("arcadedbperformancetests.Stage")
+@Label("Benchmark Stage")
+@Category({"ArcadeDB Performance Tests"})
+@Description("Stage of a performance test run")
+public class StageEvent extends Event {
+
+	@Label("Backend")
+	String backend;
+
+	@Label("Stage")
+	String stage;
+
+	@Label("Iteration")
+	int iteration;
+
+	@Label("Warmup")
+	boolean warmup;
+
+	@Label("Records")
+	long records;
+}
\ No newline at end of file
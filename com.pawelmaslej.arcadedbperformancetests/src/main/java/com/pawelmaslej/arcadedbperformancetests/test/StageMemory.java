@@ -0,0 +1,111 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memory behaviour of a single stage: bytes allocated by all threads of the JVM, engine threads of embedded
+ * database included, garbage collections and heap occupancy at stage start and end.
+ * Threads started and finished within the stage are not visible at its end, worker threads report their own
+ * allocation with {@link #addFinishedThread(long)}.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class StageMemory {
+
+	/** Allocated bytes are -1 when JVM does not measure thread allocation. */
+	public record Usage(long allocatedBytes, long gcCount, long gcTimeMs, long heapUsedBefore, long heapUsedAfter) {
+
+		public String format(long records) {
+			var allocated = allocatedBytes < 0 ? "not measured" : "%s MB, %s bytes per record".formatted(
+				allocatedBytes / 1024 / 1024, records > 0 ? allocatedBytes / records : 0);
+			return "Memory: allocated %s, %s GCs %s ms, heap %s MB -> %s MB".formatted(
+				allocated, gcCount, gcTimeMs, heapUsedBefore / 1024 / 1024, heapUsedAfter / 1024 / 1024);
+		}
+	}
+
+	static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+	Map<Long, Long> allocatedAtStart;
+	AtomicLong finishedThreadsAllocated = new AtomicLong();
+	Set<Long> finishedThreads = ConcurrentHashMap.newKeySet();
+	long gcCountAtStart;
+	long gcTimeAtStart;
+	long heapUsedAtStart;
+
+	public static StageMemory start() {
+		var memory = new StageMemory();
+		memory.allocatedAtStart = allocatedByThread();
+		memory.gcCountAtStart = gcCount();
+		memory.gcTimeAtStart = gcTimeMs();
+		memory.heapUsedAtStart = heapUsed();
+		return memory;
+	}
+
+	/** Bytes allocated by calling thread so far, -1 when not measured. */
+	public static long currentThreadAllocatedBytes() {
+		return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : -1;
+	}
+
+	/** Called by the finishing thread itself, which is then excluded from live threads at stage end. Thread safe. */
+	public void addFinishedThread(long allocatedBytes) {
+		finishedThreads.add(Thread.currentThread().getId());
+		if (allocatedBytes > 0) {
+			finishedThreadsAllocated.addAndGet(allocatedBytes);
+		}
+	}
+
+	public Usage stop() {
+		long allocated = -1;
+		if (THREADS != null) {
+			allocated = finishedThreadsAllocated.get();
+			for (var thread : allocatedByThread().entrySet()) {
+				if (!finishedThreads.contains(thread.getKey())) {
+					allocated += thread.getValue() - allocatedAtStart.getOrDefault(thread.getKey(), 0L);
+				}
+			}
+		}
+		return new Usage(allocated, gcCount() - gcCountAtStart, gcTimeMs() - gcTimeAtStart, heapUsedAtStart, heapUsed());
+	}
+
+	private static Map<Long, Long> allocatedByThread() {
+		Map<Long, Long> allocated = new HashMap<>();
+		if (THREADS == null) {
+			return allocated;
+		}
+		long[] ids = THREADS.getAllThreadIds();
+		long[] bytes = THREADS.getThreadAllocatedBytes(ids);
+		for (int i=0; i<ids.length; i++) {
+			if (bytes[i] >= 0) {
+				allocated.put(ids[i], bytes[i]);
+			}
+		}
+		return allocated;
+	}
+
+	private static long gcCount() {
+		return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(gc -> Math.max(gc.getCollectionCount(), 0)).sum();
+	}
+
+	/** Accumulated collection time, includes concurrent phases for collectors that report them. */
+	private static long gcTimeMs() {
+		return ManagementFactory.getGarbageCollectorMXBeans().stream().mapToLong(gc -> Math.max(gc.getCollectionTime(), 0)).sum();
+	}
+
+	private static long heapUsed() {
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+	}
+
+	private static com.sun.management.ThreadMXBean threadBean() {
+		if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads && threads.isThreadAllocatedMemorySupported()) {
+			threads.setThreadAllocatedMemoryEnabled(true);
+			return threads;
+		}
+		return null;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.util.List;
+
+/**
+ * Summary of values measured in repeated iterations, confidence interval is half width of 95% interval
+ * of the mean based on Student's t distribution.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public record Statistics(int n, double mean, double stddev, double min, double max, double ci95) {
+
+	/** Two-sided 95% t values for 1 to 30 degrees of freedom, normal distribution above. */
+	static final double[] T_95 = {12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+		2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+		2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042};
+
+	public static Statistics of(List<Double> values) {
+		if (values.isEmpty()) {
+			throw new IllegalArgumentException("No values");
+		}
+		int n = values.size();
+		double sum = 0;
+		double min = Double.MAX_VALUE;
+		double max = -Double.MAX_VALUE;
+		for (double value : values) {
+			sum += value;
+			min = Math.min(min, value);
+			max = Math.max(max, value);
+		}
+		double mean = sum / n;
+		if (n == 1) {
+			return new Statistics(n, mean, 0, min, max, 0);
+		}
+		double squares = 0;
+		for (double value : values) {
+			squares += (value - mean) * (value - mean);
+		}
+		double stddev = Math.sqrt(squares / (n - 1));
+		double t = n - 1 <= T_95.length ? T_95[n - 2] : 1.960;
+		return new Statistics(n, mean, stddev, min, max, t * stddev / Math.sqrt(n));
+	}
+
+	@Override
+	public String toString() {
+		return "mean %.0f, stddev %.0f, min %.0f, max %.0f, 95%% CI +/-%.0f (%s iterations)".formatted(mean, stddev, min, max, ci95, n);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+/**
+ * Records generated on demand by {@link SyntheticRecords}, nothing is cached, so memory used by the client
+ * is limited to the partition being inserted. Reproducible from seed, without any data file.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class SyntheticRecordSource implements RecordSource {
+
+	SyntheticRecords records;
+	int size;
+
+	public SyntheticRecordSource(SyntheticRecords records, int size) {
+		this.records = records;
+		this.size = size;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public String get(int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Record %s of %s".formatted(index, size));
+		}
+		return records.get(index);
+	}
+
+	@Override
+	public void close() {
+	}
+
+	@Override
+	public String toString() {
+		return "synthetic %s records, sizes %s, seed %s".formatted(size, records.getSizes(), records.getSeed());
+	}
+}
\ No newline at end of file
@@ -0,0 +1,158 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Generates varied single line json records. Record with given index is always the same for the same seed
+ * and size distribution, regardless of order or thread it is generated on.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class SyntheticRecords {
+
+	static final int CHUNK_RECORDS = 4096;
+
+	static final String[] WORDS = {"alpha", "beta", "gamma", "delta", "record", "markup", "language", "standard",
+		"generalized", "structure", "prediction", "endpoint", "alert", "toxicity", "compound", "model", "value",
+		"sample", "result", "series", "index", "entry", "term", "definition", "reference", "schema", "graph",
+		"vertex", "edge", "bucket", "page", "query"};
+	static final String[] KINDS = {"glossary", "assay", "compound", "report", "dataset"};
+
+	long seed;
+	SizeDistribution sizes;
+
+	public SyntheticRecords(long seed, SizeDistribution sizes) {
+		this.seed = seed;
+		this.sizes = sizes;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	public SizeDistribution getSizes() {
+		return sizes;
+	}
+
+	/** Json of record, its size sampled from size distribution, last entry may exceed it. */
+	public String get(long index) {
+		var random = new SplittableRandom(seed + index * 0x9E3779B97F4A7C15L);
+		int size = sizes.sample(random);
+		var sb = new StringBuilder(size + 256);
+		sb.append("{\"id\":\"rec-").append(index).append("\",\"title\":\"");
+		appendWords(sb, random, 3 + random.nextInt(4));
+		sb.append("\",\"kind\":\"").append(KINDS[random.nextInt(KINDS.length)])
+			.append("\",\"version\":").append(1 + random.nextInt(20))
+			.append(",\"score\":").append(random.nextInt(100000) / 1000.0)
+			.append(",\"tags\":[");
+		int tags = 1 + random.nextInt(4);
+		for (int i=0; i<tags; i++) {
+			sb.append(i > 0 ? ",\"" : "\"").append(WORDS[random.nextInt(WORDS.length)]).append('"');
+		}
+		sb.append("],\"attributes\":{");
+		int attributes = 1 + random.nextInt(5);
+		for (int i=0; i<attributes; i++) {
+			sb.append(i > 0 ? ",\"a" : "\"a").append(i).append("\":").append(random.nextLong(1000000));
+		}
+		sb.append("},\"entries\":[");
+		for (int i=0; sb.length() < size - 2; i++) {
+			sb.append(i > 0 ? ",{\"term\":\"" : "{\"term\":\"").append(WORDS[random.nextInt(WORDS.length)])
+				.append("\",\"value\":").append(random.nextInt(1000000))
+				.append(",\"text\":\"");
+			appendWords(sb, random, 4 + random.nextInt(12));
+			sb.append("\"}");
+		}
+		return sb.append("]}").toString();
+	}
+
+	private static void appendWords(StringBuilder sb, SplittableRandom random, int count) {
+		for (int i=0; i<count; i++) {
+			if (i > 0) {
+				sb.append(' ');
+			}
+			sb.append(WORDS[random.nextInt(WORDS.length)]);
+		}
+	}
+
+	/** File name identifying generated content, ".gz" appended for compressed output. */
+	public String fileName(long count, boolean gzip) {
+		return "data_%s_%s_%s_%s_%s%s".formatted(count, sizes.shape(), sizes.minSize(), sizes.maxSize(), seed, gzip ? ".gz" : "");
+	}
+
+	/**
+	 * Writes count records, one per line, to file in directory unless it already exists. Chunks of {@link #CHUNK_RECORDS}
+	 * records are generated in parallel and written in order, gzip output consists of one gzip member per chunk.
+	 *
+	 * @return written or existing file
+	 */
+	public Path write(Path directory, long count, boolean gzip, int threads) throws IOException {
+		var file = directory.resolve(fileName(count, gzip));
+		if (Files.exists(file)) {
+			System.out.println("Test data already generated: " + file.toAbsolutePath());
+			return file;
+		}
+		Files.createDirectories(directory);
+		var tmpFile = directory.resolve(file.getFileName() + ".tmp");
+		long chunks = (count + CHUNK_RECORDS - 1) / CHUNK_RECORDS;
+		long start = System.nanoTime();
+		long bytes = 0;
+		var executor = Executors.newFixedThreadPool(threads);
+		try (var os = Files.newOutputStream(tmpFile)) {
+			var pending = new ArrayDeque<Future<byte[]>>();
+			for (long chunk=0; chunk<chunks || !pending.isEmpty(); ) {
+				// bounded number of chunks in memory
+				while (chunk < chunks && pending.size() < threads * 2) {
+					long from = chunk * CHUNK_RECORDS;
+					long to = Math.min(from + CHUNK_RECORDS, count);
+					pending.add(executor.submit(() -> chunk(from, to, gzip)));
+					chunk++;
+				}
+				var data = pending.poll().get();
+				os.write(data);
+				bytes += data.length;
+			}
+		}
+		catch (ExecutionException e) {
+			throw e.getCause() instanceof RuntimeException re ? re : new RuntimeException(e.getCause());
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+		Files.move(tmpFile, file);
+		long time = System.nanoTime() - start;
+		System.out.println("Generated %s records (%s bytes) on %s threads in %s ms, %s records/s: %s".formatted(
+			count, bytes, threads, time / 1000000, time > 0 ? count * 1000000000L / time : 0, file.toAbsolutePath()));
+		return file;
+	}
+
+	private byte[] chunk(long from, long to, boolean gzip) {
+		var bytes = new ByteArrayOutputStream();
+		try (OutputStream os = gzip ? new GZIPOutputStream(bytes, 65536) : bytes) {
+			for (long i=from; i<to; i++) {
+				os.write(get(i).getBytes(StandardCharsets.UTF_8));
+				os.write('\n');
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bytes.toByteArray();
+	}
+}
\ No newline at end of file
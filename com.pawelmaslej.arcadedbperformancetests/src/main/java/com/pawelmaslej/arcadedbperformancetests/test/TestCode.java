@@ -0,0 +1,71 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest.DeleteStrategy;
+
+/**
+ * Set of operations executed by {@link PerformanceTest} against a single database handle.
+ * Each worker thread of a concurrent run gets its own instance.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public interface TestCode extends AutoCloseable {
+
+	/**
+	 * Deletes all vertices and edges with given strategy, returns number of deleted vertices.
+	 * Called only with strategies of {@link #supportedDeleteStrategies()}.
+	 */
+	Function<DeleteStrategy, Long> deleteAllDataFunction();
+
+	/** Strategies the API of the backend allows, always includes {@link DeleteStrategy#BATCHED_COMMIT}. */
+	Set<DeleteStrategy> supportedDeleteStrategies();
+
+	Function<String, String> createEndpointFunction();
+
+	/** Payloads are encoded with {@link PerformanceTest#getPayloadEncoding()}. */
+	Function<List<Object>, List<String>> insertFunction();
+
+	Function<List<PredictionStructureInputData>, List<String>> predictFunction();
+
+	Supplier<List<StructureData>> queryAndIterateJsonAllInputStructuresFunction();
+
+	/**
+	 * Iterates all input structures without returning them, used by QUERY stage.
+	 * Default implementation materialises {@link #queryAndIterateJsonAllInputStructuresFunction()}.
+	 *
+	 * @return number of iterated structures
+	 */
+	default Supplier<Integer> streamAllInputStructuresFunction() {
+		var queryFunction = queryAndIterateJsonAllInputStructuresFunction();
+		return () -> queryFunction.get().size();
+	}
+
+	Supplier<Integer> queryAndIterateDataAllPredictionStructuresFunction();
+
+	Supplier<List<EndpointData>> findAllEndpointsFunction();
+
+	Function<String, List<String>> findAllPredictionStructuresByEndpointIdFunction();
+
+	Runnable printStatsFunction();
+
+	/** Bytes of pages allocated by database files, negative when backend cannot measure it. */
+	default Supplier<Long> storageSizeFunction() {
+		return () -> -1L;
+	}
+
+	void txOpen();
+
+	void txCommit();
+
+	void txRollback();
+
+	/** Releases database handle owned by this instance. Called for worker instances only. */
+	@Override
+	default void close() {
+	}
+}
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.pawelmaslej.arcadedbperformancetests.test;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import com.pawelmaslej.arcadedbperformancetests.test.PerformanceTest.Stage;
+
+/**
+ * Samples records completed by insert and prediction batches of the running stage in fixed intervals,
+ * prints ops/s and batch latency of each interval and optionally writes them as CSV time series.
+ *
+ * @author Pawel Maslej
+ * @since 18 Oct 2026
+ */
+public class ThroughputTimeline implements AutoCloseable {
+
+	long intervalMs;
+	BufferedWriter csv;
+	ScheduledExecutorService sampler;
+
+	AtomicLong completed = new AtomicLong();
+	Recorder batchLatencies = new Recorder(LatencyHistograms.SIGNIFICANT_DIGITS);
+	Histogram intervalHistogram;
+	Stage stage;
+	long stageStart;
+	long lastSample;
+
+	/** @param csvFile time series file, null to only print */
+	public ThroughputTimeline(int intervalSeconds, Path csvFile) throws IOException {
+		this.intervalMs = TimeUnit.SECONDS.toMillis(intervalSeconds);
+		if (csvFile != null) {
+			Files.createDirectories(csvFile.toAbsolutePath().getParent());
+			csv = Files.newBufferedWriter(csvFile);
+			csv.write("stage,elapsedMs,records,opsPerSecond,batches,batchP50Us,batchP99Us,batchMaxUs\n");
+		}
+		sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+			var thread = new Thread(r, "throughput-timeline");
+			thread.setDaemon(true);
+			return thread;
+		});
+		sampler.scheduleAtFixedRate(this::sample, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	/** Reports remaining part of the previous stage and starts counting for the next one. */
+	public synchronized void startStage(Stage stage) {
+		sample();
+		this.stage = stage;
+		stageStart = System.nanoTime();
+		lastSample = stageStart;
+		completed.set(0);
+		intervalHistogram = batchLatencies.getIntervalHistogram(intervalHistogram);
+	}
+
+	/** Called after each batch, thread safe. */
+	public void record(int records, long batchTimeNs) {
+		completed.addAndGet(records);
+		batchLatencies.recordValue(batchTimeNs);
+	}
+
+	synchronized void sample() {
+		if (stage == null) {
+			return;
+		}
+		long now = System.nanoTime();
+		long records = completed.getAndSet(0);
+		intervalHistogram = batchLatencies.getIntervalHistogram(intervalHistogram);
+		long batches = intervalHistogram.getTotalCount();
+		if (records == 0 && batches == 0) {
+			return;
+		}
+		long opsPerSecond = now > lastSample ? records * 1000000000L / (now - lastSample) : 0;
+		long elapsedMs = (now - stageStart) / 1000000;
+		long p50 = intervalHistogram.getValueAtPercentile(50) / 1000;
+		long p99 = intervalHistogram.getValueAtPercentile(99) / 1000;
+		long max = intervalHistogram.getMaxValue() / 1000;
+		lastSample = now;
+		System.out.println("  [%s %s s] %s records, %s ops/s, %s batches p50 %s us, p99 %s us, max %s us".formatted(
+			stage, elapsedMs / 1000, records, opsPerSecond, batches, p50, p99, max));
+		if (csv != null) {
+			try {
+				csv.write("%s,%s,%s,%s,%s,%s,%s,%s\n".formatted(stage, elapsedMs, records, opsPerSecond, batches, p50, p99, max));
+				csv.flush();
+			}
+			catch (IOException e) {
+				System.out.println("Timeline file not written: " + e.getMessage());
+				csv = null;
+			}
+		}
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		sampler.shutdownNow();
+		sample();
+		stage = null;
+		if (csv != null) {
+			csv.close();
+		}
+	}
+}
\ No newline at end of file